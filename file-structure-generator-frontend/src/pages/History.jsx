@@ -14,6 +14,9 @@ const itemVariants = {
   visible: { opacity: 1, scale: 1, y: 0, transition: { duration: 0.4, ease: 'easeOut' } },
 };
 
+// Number of history entries fetched per page
+const PAGE_SIZE = 20;
+
 // --- Custom Tooltip Component ---
 const Tooltip = ({ text, style }) => (
   <div
@@ -28,7 +31,10 @@ const Tooltip = ({ text, style }) => (
 const History = () => {
   // --- State Management ---
   const [history, setHistory] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [contents, setContents] = useState({});
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState('');
   const [expandedItems, setExpandedItems] = useState(new Set());
   const [deleteConfirmation, setDeleteConfirmation] = useState(null);
@@ -45,34 +51,43 @@ const History = () => {
     fetchHistory();
   }, []);
 
-  const fetchHistory = async () => {
+  // History is fetched page by page without structure content; content is loaded per item on demand.
+  const fetchHistory = async (cursor = null) => {
     try {
-      setLoading(true);
-      const response = await api.get('/api/user/history');
-      
-      // Safely get the array from the response. Handles cases where API returns { data: [...] } or just [...].
-      const historyData = response.data.data || response.data;
-
-      // **FIX**: Ensure the data is an array before setting state to prevent crashes.
-      if (Array.isArray(historyData)) {
-        setHistory(historyData);
-      } else {
-        console.error("API response was not an array:", response.data);
-        setHistory([]); // Set to empty array to avoid errors.
-      }
+      cursor ? setLoadingMore(true) : setLoading(true);
+      const response = await api.get('/api/user/history/page', { params: { limit: PAGE_SIZE, ...(cursor && { cursor }) } });
+      const items = Array.isArray(response.data?.items) ? response.data.items : [];
+      setHistory(prevHistory => (cursor ? [...prevHistory, ...items] : items));
+      setNextCursor(response.data?.nextCursor || null);
     } catch (err) {
       setError('Failed to load history. Please try again.');
-      setHistory([]); // Also set to empty array on error.
+      if (!cursor) setHistory([]);
     } finally {
       setLoading(false);
+      setLoadingMore(false);
     }
   };
 
+  const fetchContent = async (id) => {
+    if (contents[id] !== undefined) return contents[id];
+    const response = await api.get(`/api/user/history/${id}/content`);
+    const content = response.data.structureContent;
+    setContents(prevContents => ({ ...prevContents, [id]: content }));
+    return content;
+  };
+
   // --- Event Handlers ---
-  const toggleExpand = (id) => {
+  const toggleExpand = async (id) => {
     const newExpanded = new Set(expandedItems);
     newExpanded.has(id) ? newExpanded.delete(id) : newExpanded.add(id);
     setExpandedItems(newExpanded);
+    if (newExpanded.has(id)) {
+      try {
+        await fetchContent(id);
+      } catch (err) {
+        setError('Failed to load structure content.');
+      }
+    }
   };
 
   const handleDelete = async (id) => {
@@ -88,9 +103,10 @@ const History = () => {
   const handleDownloadZip = async (item) => {
     setDownloadLoadingId(item.id);
     try {
+      const structureContent = await fetchContent(item.id);
       const response = await api.post(
         '/api/generate-structure',
-        { structureContent: item.structureContent, structureName: item.structureName || 'project-structure' },
+        { structureContent, structureName: item.structureName || 'project-structure' },
         { responseType: 'blob' }
       );
       const zipBlob = new Blob([response.data], { type: 'application/zip' });
@@ -217,7 +233,9 @@ const History = () => {
                         <h3 className="text-lg font-semibold truncate text-slate-900 dark:text-white">{item.structureName}</h3>
                         <div className="flex items-center space-x-4 text-sm text-slate-500 dark:text-slate-400 mt-1">
                           <div className="flex items-center space-x-1.5"><Calendar size={14} /><span>{formatDate(item.createdAt)}</span></div>
-                          <div className="flex items-center space-x-1.5"><FileText size={14} /><span>{item.structureContent?.split('\n').length || 0} lines</span></div>
+                          {contents[item.id] !== undefined && (
+                            <div className="flex items-center space-x-1.5"><FileText size={14} /><span>{contents[item.id].split('\n').length} lines</span></div>
+                          )}
                         </div>
                       </div>
                       <div className="flex space-x-1 ml-4">
@@ -235,7 +253,7 @@ const History = () => {
                     <AnimatePresence>
                       {expandedItems.has(item.id) && (
                         <motion.div initial={{ opacity: 0, height: 0 }} animate={{ opacity: 1, height: 'auto' }} exit={{ opacity: 0, height: 0 }} className="pt-4 mt-4 border-t border-slate-200 dark:border-slate-700">
-                          <pre className="text-xs whitespace-pre-wrap font-mono bg-slate-100 dark:bg-slate-800 p-4 rounded-lg max-h-60 overflow-auto">{item.structureContent}</pre>
+                          <pre className="text-xs whitespace-pre-wrap font-mono bg-slate-100 dark:bg-slate-800 p-4 rounded-lg max-h-60 overflow-auto">{contents[item.id] ?? 'Loading...'}</pre>
                         </motion.div>
                       )}
                     </AnimatePresence>
@@ -244,6 +262,13 @@ const History = () => {
               ))}
             </motion.div>
           )}
+          {nextCursor && (
+            <div className="flex justify-center mt-6">
+              <button onClick={() => fetchHistory(nextCursor)} disabled={loadingMore} className="px-6 py-2 rounded-lg bg-indigo-500 text-white hover:bg-indigo-600 transition disabled:opacity-60">
+                {loadingMore ? 'Loading...' : 'Load more'}
+              </button>
+            </div>
+          )}
         </main>
       </div>
       
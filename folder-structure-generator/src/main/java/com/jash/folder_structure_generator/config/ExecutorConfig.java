@@ -0,0 +1,79 @@
+package com.jash.folder_structure_generator.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dedicated executors, so background work never runs on Tomcat's request threads.
+ *
+ * With {@code spring.threads.virtual.enabled=true} the generation executor starts virtual
+ * threads instead of platform threads. Its concurrency and queue bounds stay the same, so
+ * back-pressure behaves identically in both modes. Password hashing always runs on platform
+ * threads.
+ */
+@Configuration
+@EnableScheduling
+public class ExecutorConfig {
+
+    private final boolean virtualThreads;
+
+    public ExecutorConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Runs asynchronous generation jobs. The queue is bounded and full submissions are
+     * rejected instead of piling up, so the caller can answer 429.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService generationExecutor(@Value("${generation.jobs.threads:4}") int threads,
+                                              @Value("${generation.jobs.queue-capacity:100}") int queueCapacity,
+                                              MeterRegistry meterRegistry) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory("generation-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "generation");
+    }
+
+    /**
+     * Runs BCrypt hashing, which is CPU bound and deliberately slow. One thread per core
+     * (by default) and a short queue keep a login spike from starving other requests;
+     * when the queue is full submissions are rejected so the caller can answer 503.
+     * The threads are platform threads even in virtual-thread mode: on virtual threads the
+     * hashing would occupy the carriers that the request threads share.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService passwordHashingExecutor(@Value("${security.password.hashing.threads:0}") int threads,
+                                                   @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+                                                   MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hashing");
+    }
+
+    private ThreadFactory threadFactory(String prefix) {
+        if (virtualThreads) {
+            return Thread.ofVirtual().name(prefix, 1).factory();
+        }
+        return new CustomizableThreadFactory(prefix);
+    }
+}
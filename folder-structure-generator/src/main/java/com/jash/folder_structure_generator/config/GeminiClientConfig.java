@@ -0,0 +1,56 @@
+package com.jash.folder_structure_generator.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP client for the Gemini API.
+ *
+ * Calls are non-blocking, so concurrent chats share a few event-loop threads and a
+ * bounded connection pool instead of holding one request thread each. Every call has
+ * explicit connect, write and response timeouts.
+ */
+@Configuration
+public class GeminiClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider geminiConnectionProvider(
+            @Value("${gemini.client.max-connections:200}") int maxConnections,
+            @Value("${gemini.client.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+            @Value("${gemini.client.pending-acquire-timeout:PT5S}") Duration pendingAcquireTimeout,
+            @Value("${gemini.client.max-idle-time:PT30S}") Duration maxIdleTime) {
+        return ConnectionProvider.builder("gemini")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient geminiWebClient(ConnectionProvider geminiConnectionProvider,
+                                     @Value("${gemini.client.connect-timeout:PT5S}") Duration connectTimeout,
+                                     @Value("${gemini.client.write-timeout:PT10S}") Duration writeTimeout,
+                                     @Value("${gemini.client.response-timeout:PT60S}") Duration responseTimeout) {
+        HttpClient httpClient = HttpClient.create(geminiConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout)
+                .doOnConnected(connection -> connection.addHandlerLast(
+                        new WriteTimeoutHandler(writeTimeout.toMillis(), TimeUnit.MILLISECONDS)));
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
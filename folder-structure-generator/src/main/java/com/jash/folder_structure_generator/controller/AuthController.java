@@ -8,9 +8,13 @@ import com.jash.folder_structure_generator.service.UserService;
 import com.jash.folder_structure_generator.service.EmailService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
@@ -58,13 +62,15 @@ public class AuthController {
             User savedUser = userService.createUser(user);
 
             // Generate token
-            String token = jwtUtil.generateToken(savedUser.getUsername());
+            String token = jwtUtil.generateToken(savedUser);
 
-            // Send welcome email
+            // Queue welcome email (delivered in the background)
             emailService.sendWelcomeEmail(savedUser.getEmail(), savedUser.getUsername());
 
             return ResponseEntity.ok(new AuthResponse(token, savedUser.getUsername(), "User registered successfully"));
 
+        } catch (RejectedExecutionException e) {
+            return passwordHashingBusy();
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Registration failed: " + e.getMessage());
         }
@@ -94,16 +100,27 @@ public class AuthController {
                 return ResponseEntity.badRequest().body("Invalid username or password");
             }
 
+            // Move the stored hash to the configured BCrypt cost if it differs
+            userService.rehashPasswordIfNeeded(user, request.getPassword());
+
             // Generate token
-            String token = jwtUtil.generateToken(user.getUsername());
+            String token = jwtUtil.generateToken(user);
 
-            // Send login notification email
+            // Queue login notification (coalesced with other recent logins)
             emailService.sendLoginNotification(user.getEmail(), user.getUsername());
 
             return ResponseEntity.ok(new AuthResponse(token, user.getUsername(), "Login successful"));
 
+        } catch (RejectedExecutionException e) {
+            return passwordHashingBusy();
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Login failed: " + e.getMessage());
         }
     }
+
+    private ResponseEntity<?> passwordHashingBusy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Too many sign-in requests, please retry shortly");
+    }
 }
\ No newline at end of file
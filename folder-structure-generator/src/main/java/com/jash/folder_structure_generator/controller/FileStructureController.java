@@ -3,37 +3,52 @@ package com.jash.folder_structure_generator.controller;
 
 import com.jash.folder_structure_generator.dto.StructureRequest;
 import com.jash.folder_structure_generator.model.User;
+import com.jash.folder_structure_generator.security.AuthenticatedUser;
 import com.jash.folder_structure_generator.service.FileStructureService;
-import com.jash.folder_structure_generator.service.UserService;
+import com.jash.folder_structure_generator.service.StructurePipelineService;
+import com.jash.folder_structure_generator.service.StructurePipelineService.PipelineResult;
+import com.jash.folder_structure_generator.util.ArchiveTree;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "*")
 public class FileStructureController {
 
     private final FileStructureService fileStructureService;
-    private final UserService userService;
+    private final StructurePipelineService pipelineService;
+
+    // When enabled the ZIP is written straight to the response with chunked transfer
+    // instead of being buffered in memory first.
+    @Value("${generation.streaming.enabled:true}")
+    private boolean streamingEnabled;
 
     @Autowired
-    public FileStructureController(FileStructureService fileStructureService, UserService userService) {
+    public FileStructureController(FileStructureService fileStructureService,
+                                   StructurePipelineService pipelineService) {
         this.fileStructureService = fileStructureService;
-        this.userService = userService;
+        this.pipelineService = pipelineService;
     }
 
     @PostMapping("/generate-structure")
     public ResponseEntity<?> generateStructure(@RequestBody StructureRequest request,
-                                               Authentication authentication) {
+                                               @AuthenticationPrincipal AuthenticatedUser currentUser,
+                                               HttpServletResponse response) {
         try {
             // Get current user
-            String username = authentication.getName();
-            User user = userService.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser.toUser();
 
             // Validate input
             if (request.getStructureContent() == null || request.getStructureContent().trim().isEmpty()) {
@@ -45,17 +60,31 @@ public class FileStructureController {
                 structureName = "generated-structure-" + System.currentTimeMillis();
             }
 
+            // Prepare response headers
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+            headers.setContentDispositionFormData("attachment", structureName + ".zip");
+
+            if (streamingEnabled) {
+                // Parse up front so invalid input still gets a 400, then stream the entries
+                ArchiveTree archive = fileStructureService.prepareArchive(
+                        request.getStructureContent(),
+                        structureName,
+                        user
+                );
+                headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+                fileStructureService.writeZip(archive, response.getOutputStream());
+                response.flushBuffer();
+                // The response has been written, there is no body left for Spring to handle
+                return null;
+            }
+
             // Generate ZIP
             byte[] zipData = fileStructureService.generateZipFromStructure(
                     request.getStructureContent(),
                     structureName,
                     user
             );
-
-            // Prepare response headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDispositionFormData("attachment", structureName + ".zip");
             headers.setContentLength(zipData.length);
 
             return ResponseEntity.ok()
@@ -63,17 +92,84 @@ public class FileStructureController {
                     .body(zipData);
 
         } catch (Exception e) {
+            if (response.isCommitted()) {
+                // Part of the archive was already sent, so a 400 can no longer be returned
+                throw new IllegalStateException("Failed while streaming structure archive", e);
+            }
             return ResponseEntity.badRequest().body("Failed to generate structure: " + e.getMessage());
         }
     }
 
+    /**
+     * Generates the archive while the structure is validated by Gemini.
+     * variant=original answers as soon as the original archive is built (the corrected one
+     * is prepared in the background); variant=corrected waits for validation and returns the
+     * corrected archive. The X-Structure-Corrected header tells which one was returned.
+     */
+    @PostMapping("/generate-structure/validated")
+    public CompletableFuture<ResponseEntity<?>> generateValidatedStructure(@RequestBody StructureRequest request,
+                                                                          @RequestParam(defaultValue = "corrected") String variant,
+                                                                          @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        try {
+            // Get current user
+            User user = currentUser.toUser();
+
+            // Validate input
+            if (request.getStructureContent() == null || request.getStructureContent().trim().isEmpty()) {
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Structure content is required"));
+            }
+            if (!"original".equals(variant) && !"corrected".equals(variant)) {
+                return CompletableFuture.completedFuture(
+                        ResponseEntity.badRequest().body("Variant must be 'original' or 'corrected'"));
+            }
+
+            String structureName = request.getStructureName();
+            if (structureName == null || structureName.trim().isEmpty()) {
+                structureName = "generated-structure-" + System.currentTimeMillis();
+            }
+            String archiveName = structureName;
+
+            if ("original".equals(variant)) {
+                PipelineResult result = pipelineService.generateOriginal(request.getStructureContent(), structureName, user);
+                return CompletableFuture.completedFuture(archiveResponse(result, archiveName));
+            }
+
+            return pipelineService.generateCorrected(request.getStructureContent(), structureName, user)
+                    .<ResponseEntity<?>>thenApply(result -> archiveResponse(result, archiveName))
+                    .exceptionally(this::pipelineFailure);
+
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(pipelineFailure(e));
+        }
+    }
+
+    private ResponseEntity<?> archiveResponse(PipelineResult result, String structureName) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDispositionFormData("attachment", structureName + ".zip");
+        headers.setContentLength(result.zip().length);
+        headers.set("X-Structure-Corrected", String.valueOf(result.corrected()));
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(result.zip());
+    }
+
+    private ResponseEntity<?> pipelineFailure(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body("Generation queue is full, please retry later");
+        }
+        return ResponseEntity.badRequest().body("Failed to generate structure: " + cause.getMessage());
+    }
+
     @DeleteMapping("/history/{id}")
-    public ResponseEntity<?> deleteHistoryItem(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> deleteHistoryItem(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser currentUser) {
         try {
             // Get current user
-            String username = authentication.getName();
-            User user = userService.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser.toUser();
 
             // Delete the history item
             fileStructureService.deleteHistoryItem(id, user);
@@ -3,12 +3,13 @@ package com.jash.folder_structure_generator.controller;
 import com.jash.folder_structure_generator.dto.ChatRequest;
 import com.jash.folder_structure_generator.dto.ChatResponse;
 import com.jash.folder_structure_generator.service.GeminiService;
-import com.jash.folder_structure_generator.model.User;
-import com.jash.folder_structure_generator.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api")
@@ -16,34 +17,60 @@ import org.springframework.web.bind.annotation.*;
 public class GeminiController {
 
     private final GeminiService geminiService;
-    private final UserService userService;
 
     @Autowired
-    public GeminiController(GeminiService geminiService, UserService userService) {
+    public GeminiController(GeminiService geminiService) {
         this.geminiService = geminiService;
-        this.userService = userService;
     }
 
+    /**
+     * Answers asynchronously: the request thread is released while Gemini responds, and
+     * the response is written once the {@link Mono} completes.
+     */
     @PostMapping("/gemini-chat")
-    public ResponseEntity<?> chatWithGemini(@RequestBody ChatRequest request, Authentication authentication) {
+    public Mono<ResponseEntity<?>> chatWithGemini(@RequestBody ChatRequest request) {
         try {
-            // Get current user
-            String username = authentication.getName();
-            User user = userService.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
             // Validate input
             if (request.getMessage() == null || request.getMessage().trim().isEmpty()) {
-                return ResponseEntity.badRequest().body("Message is required");
+                return Mono.just(ResponseEntity.badRequest().body("Message is required"));
             }
 
             // Get response from Gemini
-            String response = geminiService.chatWithGemini(request.getMessage());
+            return geminiService.chatWithGemini(request.getMessage())
+                    .<ResponseEntity<?>>map(response -> ResponseEntity.ok(new ChatResponse(response)))
+                    .onErrorResume(e -> Mono.just(
+                            ResponseEntity.badRequest().body("Failed to get AI response: " + e.getMessage())));
+
+        } catch (Exception e) {
+            return Mono.just(ResponseEntity.badRequest().body("Failed to get AI response: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Streams the answer as server-sent events: one "message" event per chunk (a
+     * {@link ChatResponse} holding that chunk), then a "done" event. If the client
+     * disconnects, the upstream Gemini call is cancelled.
+     */
+    @PostMapping(value = "/gemini-chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<?>> streamChatWithGemini(@RequestBody ChatRequest request) {
+        try {
+            // Validate input
+            if (request.getMessage() == null || request.getMessage().trim().isEmpty()) {
+                return Flux.just(errorEvent("Message is required"));
+            }
 
-            return ResponseEntity.ok(new ChatResponse(response));
+            Flux<ServerSentEvent<?>> chunks = geminiService.streamChatWithGemini(request.getMessage())
+                    .<ServerSentEvent<?>>map(chunk -> ServerSentEvent.builder(new ChatResponse(chunk)).event("message").build());
+            return chunks
+                    .concatWith(Flux.just(ServerSentEvent.builder("[DONE]").event("done").build()))
+                    .onErrorResume(e -> Flux.just(errorEvent("Failed to get AI response: " + e.getMessage())));
 
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body("Failed to get AI response: " + e.getMessage());
+            return Flux.just(errorEvent("Failed to get AI response: " + e.getMessage()));
         }
     }
-} 
\ No newline at end of file
+
+    private ServerSentEvent<?> errorEvent(String message) {
+        return ServerSentEvent.builder(message).event("error").build();
+    }
+}
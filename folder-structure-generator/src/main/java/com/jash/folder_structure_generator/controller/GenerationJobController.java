@@ -0,0 +1,100 @@
+package com.jash.folder_structure_generator.controller;
+
+import com.jash.folder_structure_generator.dto.GenerationJobResponse;
+import com.jash.folder_structure_generator.dto.StructureRequest;
+import com.jash.folder_structure_generator.model.User;
+import com.jash.folder_structure_generator.security.AuthenticatedUser;
+import com.jash.folder_structure_generator.service.GenerationJob;
+import com.jash.folder_structure_generator.service.GenerationJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/generate-structure/jobs")
+@CrossOrigin(origins = "*")
+public class GenerationJobController {
+
+    private final GenerationJobService generationJobService;
+
+    @Autowired
+    public GenerationJobController(GenerationJobService generationJobService) {
+        this.generationJobService = generationJobService;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> submitJob(@RequestBody StructureRequest request, @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        try {
+            // Get current user
+            User user = currentUser.toUser();
+
+            // Validate input
+            if (request.getStructureContent() == null || request.getStructureContent().trim().isEmpty()) {
+                return ResponseEntity.badRequest().body("Structure content is required");
+            }
+
+            String structureName = request.getStructureName();
+            if (structureName == null || structureName.trim().isEmpty()) {
+                structureName = "generated-structure-" + System.currentTimeMillis();
+            }
+
+            GenerationJob job = generationJobService.submit(request.getStructureContent(), structureName, user);
+            GenerationJobResponse response = GenerationJobResponse.of(job);
+
+            return ResponseEntity.accepted()
+                    .location(URI.create(response.getStatusUrl()))
+                    .body(response);
+
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body("Generation queue is full, please retry later");
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to submit generation job: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJobStatus(@PathVariable String id, @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return generationJobService.getJob(id, currentUser.getUsername())
+                .<ResponseEntity<?>>map(job -> ResponseEntity.ok(GenerationJobResponse.of(job)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Generation job not found"));
+    }
+
+    @GetMapping("/{id}/download")
+    public ResponseEntity<?> downloadJobResult(@PathVariable String id, @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        Optional<GenerationJob> found = generationJobService.getJob(id, currentUser.getUsername());
+        if (found.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Generation job not found");
+        }
+
+        GenerationJob job = found.get();
+        if (job.getStatus() != GenerationJob.Status.COMPLETED) {
+            // Not ready (or failed): report the current state instead of an archive
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(GenerationJobResponse.of(job));
+        }
+
+        Optional<byte[]> result = generationJobService.getResult(job);
+        if (result.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.GONE).body("Generation result is no longer available, please generate again");
+        }
+
+        byte[] zipData = result.get();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDispositionFormData("attachment", job.getStructureName() + ".zip");
+        headers.setContentLength(zipData.length);
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(zipData);
+    }
+}
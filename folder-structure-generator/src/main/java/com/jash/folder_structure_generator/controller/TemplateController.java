@@ -1,15 +1,30 @@
 package com.jash.folder_structure_generator.controller;
 
 import com.jash.folder_structure_generator.dto.Template;
+import com.jash.folder_structure_generator.dto.TemplateSummary;
+import com.jash.folder_structure_generator.service.TemplateArchiveService;
+import com.jash.folder_structure_generator.service.TemplateArchiveService.TemplateArchive;
 import com.jash.folder_structure_generator.service.TemplateService;
+import com.jash.folder_structure_generator.util.PrecompressedJson;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api")
@@ -17,14 +32,93 @@ import java.util.List;
 public class TemplateController {
 
     private final TemplateService templateService;
+    private final TemplateArchiveService templateArchiveService;
 
     @Autowired
-    public TemplateController(TemplateService templateService) {
+    public TemplateController(TemplateService templateService, TemplateArchiveService templateArchiveService) {
         this.templateService = templateService;
+        this.templateArchiveService = templateArchiveService;
     }
 
     @GetMapping("/templates")
-    public ResponseEntity<List<Template>> getTemplates() {
-        return ResponseEntity.ok(templateService.getTemplates());
+    public ResponseEntity<byte[]> getTemplates(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        return precompressed(templateService.getTemplatesPayload(), acceptEncoding, webRequest);
+    }
+
+    @GetMapping("/templates/summary")
+    public ResponseEntity<?> getTemplateSummaries(
+            @RequestParam(required = false) String format,
+            @RequestParam(value = "q", required = false) String keyword,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        if (format == null && (keyword == null || keyword.isBlank())) {
+            return precompressed(templateService.getSummariesPayload(), acceptEncoding, webRequest);
+        }
+        List<TemplateSummary> summaries = templateService.findSummaries(format, keyword);
+        return ResponseEntity.ok(summaries);
+    }
+
+    @GetMapping("/templates/{id}")
+    public ResponseEntity<Template> getTemplate(@PathVariable String id) {
+        return templateService.getTemplate(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/templates/{id}/zip")
+    public ResponseEntity<Resource> downloadTemplate(@PathVariable String id, WebRequest webRequest) {
+        Optional<TemplateArchive> archive = templateArchiveService.getArchive(id);
+        if (archive.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String etag = archive.get().getEtag();
+        if (webRequest.checkNotModified(etag)) {
+            // 304 with the ETag has already been set on the response
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(Duration.ofHours(1)).cachePublic())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(id + ".zip").build().toString())
+                .contentLength(archive.get().size())
+                .body(archive.get().asResource());
+    }
+
+    private ResponseEntity<byte[]> precompressed(PrecompressedJson payload, String acceptEncoding, WebRequest webRequest) {
+        boolean gzipped = acceptsGzip(acceptEncoding);
+        String etag = payload.etag(gzipped);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(Duration.ofHours(1)).cachePublic())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzipped) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(payload.body(gzipped));
+    }
+
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // "gzip;q=0" explicitly refuses the encoding
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 }
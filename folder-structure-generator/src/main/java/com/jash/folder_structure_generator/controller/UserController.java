@@ -1,14 +1,17 @@
 package com.jash.folder_structure_generator.controller;
 
 
+import com.jash.folder_structure_generator.dto.HistoryPageResponse;
 import com.jash.folder_structure_generator.dto.HistoryResponse;
 import com.jash.folder_structure_generator.model.FileStructureHistory;
 import com.jash.folder_structure_generator.model.User;
+import com.jash.folder_structure_generator.security.AuthenticatedUser;
 import com.jash.folder_structure_generator.service.FileStructureService;
 import com.jash.folder_structure_generator.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,6 +23,8 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class UserController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final FileStructureService fileStructureService;
     private final UserService userService;
 
@@ -29,13 +34,15 @@ public class UserController {
         this.userService = userService;
     }
 
+    /**
+     * The complete history including structure content. Kept for existing clients; the
+     * paged listing below is much cheaper for users with many entries.
+     */
     @GetMapping("/history")
-    public ResponseEntity<?> getUserHistory(Authentication authentication) {
+    public ResponseEntity<?> getUserHistory(@AuthenticationPrincipal AuthenticatedUser currentUser) {
         try {
             // Get current user
-            String username = authentication.getName();
-            User user = userService.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser.toUser();
 
             // Get user history
             List<FileStructureHistory> history = fileStructureService.getUserHistory(user);
@@ -57,13 +64,51 @@ public class UserController {
         }
     }
     
+    /**
+     * Pages through the history newest first, without structure content. Pass the returned
+     * nextCursor to get the next page; the content of an entry is fetched separately.
+     */
+    @GetMapping("/history/page")
+    public ResponseEntity<?> getUserHistoryPage(@RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "20") int limit,
+                                                @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        try {
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                return ResponseEntity.badRequest().body("Limit must be between 1 and " + MAX_PAGE_SIZE);
+            }
+
+            // Get current user
+            User user = currentUser.toUser();
+
+            HistoryPageResponse page = fileStructureService.getHistoryPage(user, cursor, limit);
+            return ResponseEntity.ok(page);
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to get history: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/history/{id}/content")
+    public ResponseEntity<?> getHistoryContent(@PathVariable Long id,
+                                               @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        try {
+            // Get current user
+            User user = currentUser.toUser();
+
+            return fileStructureService.getHistoryContent(id, user)
+                    .<ResponseEntity<?>>map(content -> ResponseEntity.ok(Map.of("id", id, "structureContent", content)))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("History item not found"));
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to get history content: " + e.getMessage());
+        }
+    }
+
     @DeleteMapping("/history/{id}")
-    public ResponseEntity<?> deleteHistoryItem(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> deleteHistoryItem(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser currentUser) {
         try {
             // Get current user
-            String username = authentication.getName();
-            User user = userService.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser.toUser();
 
             // Delete history item
             fileStructureService.deleteHistoryItem(id, user);
@@ -76,11 +121,10 @@ public class UserController {
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<?> getUserProfile(Authentication authentication) {
+    public ResponseEntity<?> getUserProfile(@AuthenticationPrincipal AuthenticatedUser currentUser) {
         try {
-            // Get current user
-            String username = authentication.getName();
-            User user = userService.findByUsername(username)
+            // The profile includes fields the token does not carry
+            User user = userService.findById(currentUser.getId())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
             return ResponseEntity.ok(new UserProfileResponse(
@@ -0,0 +1,32 @@
+package com.jash.folder_structure_generator.dto;
+
+import com.jash.folder_structure_generator.service.GenerationJob;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class GenerationJobResponse {
+    private String jobId;
+    private String status;
+    private int progress;
+    private int filesWritten;
+    private int totalFiles;
+    private String error;
+    private String statusUrl;
+    private String downloadUrl;
+
+    public static GenerationJobResponse of(GenerationJob job) {
+        String statusUrl = "/api/generate-structure/jobs/" + job.getId();
+        return new GenerationJobResponse(
+                job.getId(),
+                job.getStatus().name(),
+                job.getProgress(),
+                job.getFilesWritten(),
+                job.getTotalFiles(),
+                job.getError(),
+                statusUrl,
+                job.getStatus() == GenerationJob.Status.COMPLETED ? statusUrl + "/download" : null
+        );
+    }
+}
@@ -0,0 +1,16 @@
+package com.jash.folder_structure_generator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+/**
+ * One page of history, newest first. nextCursor is passed back to fetch the following
+ * page and is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class HistoryPageResponse {
+    private List<HistorySummaryResponse> items;
+    private String nextCursor;
+}
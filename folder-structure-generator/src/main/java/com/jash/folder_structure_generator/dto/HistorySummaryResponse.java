@@ -0,0 +1,16 @@
+package com.jash.folder_structure_generator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * A history entry without its structure content, as listed by the paged history endpoint.
+ */
+@Data
+@AllArgsConstructor
+public class HistorySummaryResponse {
+    private Long id;
+    private String structureName;
+    private LocalDateTime createdAt;
+}
@@ -1,14 +1,12 @@
 package com.jash.folder_structure_generator.dto;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Value;
 
-@Data
-@AllArgsConstructor
+@Value
 public class Template {
-    private String id;
-    private String name;
-    private String description;
-    private String content;
-    private String format; // "json" or "text"
+    String id;
+    String name;
+    String description;
+    String content;
+    String format; // "json" or "text"
 }
@@ -0,0 +1,29 @@
+package com.jash.folder_structure_generator.dto;
+
+import lombok.Value;
+
+import java.util.Locale;
+
+/**
+ * Template listing without its structure content, for the gallery.
+ */
+@Value
+public class TemplateSummary {
+    String id;
+    String name;
+    String description;
+    String format;
+
+    public static TemplateSummary of(Template template) {
+        return new TemplateSummary(template.getId(), template.getName(), template.getDescription(), template.getFormat());
+    }
+
+    /**
+     * @param keyword lower-case keyword to look for in id, name and description
+     */
+    public boolean matches(String keyword) {
+        return id.toLowerCase(Locale.ROOT).contains(keyword)
+                || name.toLowerCase(Locale.ROOT).contains(keyword)
+                || description.toLowerCase(Locale.ROOT).contains(keyword);
+    }
+}
@@ -1,16 +1,21 @@
 package com.jash.folder_structure_generator.model;
 
 
+import com.jash.folder_structure_generator.util.StructureContentCodec;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name="file_structure_history")
+@Table(name="file_structure_history",
+        indexes = @Index(name = "idx_history_user_created", columnList = "user_id, created_at"))
 @AllArgsConstructor
 @NoArgsConstructor
 public class FileStructureHistory {
@@ -22,7 +27,24 @@ public class FileStructureHistory {
     @Column(nullable = false, length = 1000)
     private String structureName;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
+    // SHA-256 of the content in structure_blob; null until a pre-blob-store row is migrated
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // Content stored inline before the blob store was introduced; cleared once the row is migrated
+    @Column(name = "structure_content", columnDefinition = "TEXT")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String legacyStructureContent;
+
+    // Inline content encoded with StructureContentCodec, also cleared by the migration
+    @Column(name = "structure_content_data", columnDefinition = "MEDIUMBLOB")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private byte[] structureContentData;
+
+    // Resolved from the blob store by FileStructureService
+    @Transient
     private String structureContent;
 
     @Column(name = "created_at")
@@ -37,4 +59,13 @@ public class FileStructureHistory {
         createdAt = LocalDateTime.now();
     }
 
+    /**
+     * Content kept in the row itself by entries that have not been moved to the blob store yet.
+     */
+    public String getInlineStructureContent() {
+        return structureContentData != null
+                ? StructureContentCodec.decode(structureContentData)
+                : legacyStructureContent;
+    }
+
 }
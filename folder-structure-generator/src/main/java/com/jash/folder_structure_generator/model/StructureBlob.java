@@ -0,0 +1,37 @@
+package com.jash.folder_structure_generator.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Structure content stored once per distinct value, keyed by the SHA-256 of its UTF-8 bytes.
+ * History entries refer to it by hash, so a template downloaded by many users is kept once.
+ * Rows are written with an insert that ignores duplicates and are never updated.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "structure_blob")
+public class StructureBlob {
+
+    // Lowercase hex SHA-256 of the uncompressed content
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    // Content encoded with StructureContentCodec
+    @Column(nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] content;
+
+    // Size of the uncompressed content in bytes
+    @Column(name = "content_length", nullable = false)
+    private int contentLength;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
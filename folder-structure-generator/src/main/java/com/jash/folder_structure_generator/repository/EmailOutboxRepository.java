@@ -0,0 +1,38 @@
+package com.jash.folder_structure_generator.repository;
+
+import com.jash.folder_structure_generator.model.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    List<EmailOutbox> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(EmailOutbox.Status status,
+                                                                             LocalDateTime now,
+                                                                             Pageable pageable);
+
+    /**
+     * Folds another event into a pending email of the same type for the same recipient that
+     * is still waiting out its coalescing window. Returns the number of rows updated (0 when
+     * there is none to join). Emails already due are left alone, since the dispatcher may be
+     * sending them.
+     */
+    @Modifying
+    @Query("update EmailOutbox e set e.occurrences = e.occurrences + 1 " +
+            "where e.type = :type and e.recipient = :recipient and e.attempts = 0 and e.nextAttemptAt > :now " +
+            "and e.status = com.jash.folder_structure_generator.model.EmailOutbox.Status.PENDING")
+    int coalesce(@Param("type") EmailOutbox.Type type, @Param("recipient") String recipient,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from EmailOutbox e where e.status = :status and e.createdAt < :before")
+    int deleteByStatusAndCreatedAtBefore(@Param("status") EmailOutbox.Status status,
+                                         @Param("before") LocalDateTime before);
+}
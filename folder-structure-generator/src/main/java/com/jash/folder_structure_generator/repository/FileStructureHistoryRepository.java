@@ -1,13 +1,42 @@
 package com.jash.folder_structure_generator.repository;
 
+import com.jash.folder_structure_generator.dto.HistorySummaryResponse;
 import com.jash.folder_structure_generator.model.FileStructureHistory;
 import com.jash.folder_structure_generator.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface FileStructureHistoryRepository extends JpaRepository<FileStructureHistory, Long> {
     List<FileStructureHistory> findByUserOrderByCreatedAtDesc(User user);
-}
\ No newline at end of file
+
+    /**
+     * First page of a user's history, newest first, without the structure content.
+     */
+    @Query("select new com.jash.folder_structure_generator.dto.HistorySummaryResponse(h.id, h.structureName, h.createdAt) " +
+            "from FileStructureHistory h where h.user.id = :userId " +
+            "order by h.createdAt desc, h.id desc")
+    List<HistorySummaryResponse> findSummaries(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * The page following the entry (createdAt, id). Seeks through the (user_id, created_at)
+     * index instead of skipping rows, so deep pages cost the same as the first one.
+     */
+    @Query("select new com.jash.folder_structure_generator.dto.HistorySummaryResponse(h.id, h.structureName, h.createdAt) " +
+            "from FileStructureHistory h where h.user.id = :userId " +
+            "and (h.createdAt < :createdAt or (h.createdAt = :createdAt and h.id < :id)) " +
+            "order by h.createdAt desc, h.id desc")
+    List<HistorySummaryResponse> findSummariesAfter(@Param("userId") Long userId,
+                                                    @Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("id") Long id,
+                                                    Pageable pageable);
+
+    Optional<FileStructureHistory> findByIdAndUserId(Long id, Long userId);
+}
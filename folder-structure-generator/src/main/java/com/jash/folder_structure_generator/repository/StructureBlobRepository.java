@@ -0,0 +1,9 @@
+package com.jash.folder_structure_generator.repository;
+
+import com.jash.folder_structure_generator.model.StructureBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StructureBlobRepository extends JpaRepository<StructureBlob, String> {
+}
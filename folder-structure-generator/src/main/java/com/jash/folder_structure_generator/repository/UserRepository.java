@@ -3,7 +3,11 @@ package com.jash.folder_structure_generator.repository;
 
 import com.jash.folder_structure_generator.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -14,4 +18,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    /**
+     * Replaces a password hash, but only if it is still the expected one.
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newHash where u.id = :id and u.password = :expectedHash")
+    int updatePassword(@Param("id") Long id, @Param("expectedHash") String expectedHash,
+                       @Param("newHash") String newHash);
 }
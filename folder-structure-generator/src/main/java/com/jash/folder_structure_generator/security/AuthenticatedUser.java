@@ -0,0 +1,62 @@
+package com.jash.folder_structure_generator.security;
+
+import com.jash.folder_structure_generator.model.User;
+
+import java.security.Principal;
+
+/**
+ * Identity of the caller, taken from the token claims (or the cached user lookup for
+ * tokens issued without them). Controllers receive it with
+ * {@code @AuthenticationPrincipal} instead of loading the user from the database.
+ */
+public class AuthenticatedUser implements Principal {
+
+    private final Long id;
+    private final String username;
+    private final String email;
+
+    public AuthenticatedUser(Long id, String username, String email) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+    }
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getEmail());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * A detached {@link User} carrying only id, username and email. It is never loaded from
+     * the database, which is enough to link history entries to the user and to check
+     * ownership. Profile fields such as createdAt are not set.
+     */
+    public User toUser() {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setEmail(email);
+        return user;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
@@ -1,23 +1,68 @@
 package com.jash.folder_structure_generator.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.jash.folder_structure_generator.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import java.security.Key;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.nio.charset.StandardCharsets;
 
+/**
+ * Issues and verifies the HS256 tokens used by the API.
+ *
+ * The signing key and the parser are built once. {@link #verify(String)} checks the
+ * signature and expiry in a single parse and remembers the claims of recently verified
+ * tokens until they expire, so a client sending the same token on every request is only
+ * parsed once. The cache is keyed by the complete token string, so a token that differs
+ * in any byte is parsed and verified again.
+ *
+ * Tokens issued for a {@link User} also carry the user id and email, so the caller's
+ * identity can be resolved from the token alone (see {@link #toAuthenticatedUser}).
+ */
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String EMAIL_CLAIM = "email";
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final long expiration;
+    private final Cache<String, Claims> verifiedTokens;
 
-    private Key getSigningKey() {
+    @Autowired
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") long expiration,
+                   @Value("${jwt.cache.enabled:true}") boolean cacheEnabled,
+                   @Value("${jwt.cache.max-entries:10000}") long cacheMaxEntries,
+                   MeterRegistry meterRegistry) {
+        this.signingKey = createSigningKey(secret);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.expiration = expiration;
+        if (cacheEnabled) {
+            this.verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(cacheMaxEntries)
+                    .expireAfter(new UntilTokenExpiry())
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified");
+        } else {
+            this.verifiedTokens = null;
+        }
+    }
+
+    private static Key createSigningKey(String secret) {
         byte[] keyBytes;
         if (secret.getBytes(StandardCharsets.UTF_8).length < 32) {
             // Pad the secret if it's too short
@@ -29,6 +74,20 @@ public class JwtUtil {
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
+    public String generateToken(User user) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + expiration);
+
+        return Jwts.builder()
+                .setSubject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(EMAIL_CLAIM, user.getEmail())
+                .setIssuedAt(now)
+                .setExpiration(expiryDate)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
     public String generateToken(String username) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
@@ -37,56 +96,89 @@ public class JwtUtil {
                 .setSubject(username)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            return claims.getSubject();
-        } catch (Exception e) {
+    /**
+     * Verifies the signature and expiry of a token and returns its claims, or null when
+     * the token is malformed, forged or expired.
+     */
+    public Claims verify(String token) {
+        if (token == null || token.isEmpty()) {
             return null;
         }
-    }
-
-    public boolean validateToken(String token) {
+        if (verifiedTokens != null) {
+            Claims cached = verifiedTokens.getIfPresent(token);
+            if (cached != null && !isExpired(cached)) {
+                return cached;
+            }
+        }
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (verifiedTokens != null && claims.getExpiration() != null) {
+                verifiedTokens.put(token, claims);
+            }
+            return claims;
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
         }
     }
 
-    public Date getExpirationDateFromToken(String token) {
-        try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            return claims.getExpiration();
-        } catch (Exception e) {
+    /**
+     * Builds the caller's identity from verified claims, or returns null when the token
+     * predates the identity claims and the user has to be looked up by name.
+     */
+    public AuthenticatedUser toAuthenticatedUser(Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        if (userId == null || claims.getSubject() == null) {
             return null;
         }
+        return new AuthenticatedUser(userId.longValue(), claims.getSubject(), claims.get(EMAIL_CLAIM, String.class));
+    }
+
+    public String getUsernameFromToken(String token) {
+        Claims claims = verify(token);
+        return claims == null ? null : claims.getSubject();
+    }
+
+    public boolean validateToken(String token) {
+        return verify(token) != null;
+    }
+
+    public Date getExpirationDateFromToken(String token) {
+        Claims claims = verify(token);
+        return claims == null ? null : claims.getExpiration();
     }
 
     public boolean isTokenExpired(String token) {
-        try {
-            Date expiration = getExpirationDateFromToken(token);
-            return expiration != null && expiration.before(new Date());
-        } catch (Exception e) {
-            return true;
+        // The parser rejects expired tokens, so anything that does not verify counts as expired
+        return verify(token) == null;
+    }
+
+    private static boolean isExpired(Claims claims) {
+        return claims.getExpiration().getTime() <= System.currentTimeMillis();
+    }
+
+    /**
+     * Keeps a verified token only until its exp claim.
+     */
+    private static final class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
-}
\ No newline at end of file
+}
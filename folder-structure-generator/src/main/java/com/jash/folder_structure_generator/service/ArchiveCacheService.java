@@ -0,0 +1,143 @@
+package com.jash.folder_structure_generator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jash.folder_structure_generator.util.ArchiveTree;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.IntConsumer;
+
+/**
+ * Content-addressed cache of generated ZIP archives.
+ *
+ * Archives are keyed by {@link ArchiveTree#digest()}, so any input that normalizes to
+ * the same layout is served from memory. The cache is bounded by total bytes and uses
+ * Caffeine's W-TinyLFU eviction; hits, misses and evictions are published under the
+ * "generation.archives" cache metrics.
+ */
+@Service
+public class ArchiveCacheService {
+
+    private final boolean enabled;
+    private final int maxEntryBytes;
+    private final Cache<String, byte[]> cache;
+
+    @Autowired
+    public ArchiveCacheService(@Value("${generation.cache.enabled:true}") boolean enabled,
+                               @Value("${generation.cache.max-bytes:67108864}") long maxBytes,
+                               @Value("${generation.cache.max-entry-bytes:4194304}") int maxEntryBytes,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxEntryBytes = maxEntryBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, byte[] zip) -> zip.length + key.length())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "generation.archives");
+    }
+
+    /**
+     * Returns the ZIP for the tree, building and caching it on a miss.
+     */
+    public byte[] getOrBuild(ArchiveTree tree) throws IOException {
+        return getOrBuild(tree, null);
+    }
+
+    /**
+     * Same as {@link #getOrBuild(ArchiveTree)}, reporting files written while building on a miss.
+     */
+    public byte[] getOrBuild(ArchiveTree tree, IntConsumer progress) throws IOException {
+        if (!enabled) {
+            return build(tree, progress);
+        }
+        String key = tree.digest();
+        byte[] cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] zip = build(tree, progress);
+        if (zip.length <= maxEntryBytes) {
+            cache.put(key, zip);
+        }
+        return zip;
+    }
+
+    /**
+     * Writes the ZIP for the tree to the stream. Cached archives are copied as-is; on a miss
+     * the archive is streamed while a copy is captured for the cache, as long as it stays
+     * under the per-entry limit.
+     */
+    public void write(ArchiveTree tree, OutputStream out) throws IOException {
+        if (!enabled) {
+            tree.writeZip(out);
+            return;
+        }
+        String key = tree.digest();
+        byte[] cached = cache.getIfPresent(key);
+        if (cached != null) {
+            out.write(cached);
+            return;
+        }
+        CapturingOutputStream capture = new CapturingOutputStream(out, maxEntryBytes);
+        tree.writeZip(capture);
+        byte[] zip = capture.captured();
+        if (zip != null) {
+            cache.put(key, zip);
+        }
+    }
+
+    private byte[] build(ArchiveTree tree, IntConsumer progress) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        tree.writeZip(baos, progress);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Passes writes through while keeping a copy, and drops the copy once it grows past the limit.
+     */
+    private static final class CapturingOutputStream extends FilterOutputStream {
+        private final int limit;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        private CapturingOutputStream(OutputStream out, int limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            capture(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            capture(b, off, len);
+        }
+
+        private void capture(byte[] b, int off, int len) {
+            if (copy == null) {
+                return;
+            }
+            if (copy.size() + len > limit) {
+                copy = null;
+                return;
+            }
+            copy.write(b, off, len);
+        }
+
+        private byte[] captured() {
+            return copy == null ? null : copy.toByteArray();
+        }
+    }
+}
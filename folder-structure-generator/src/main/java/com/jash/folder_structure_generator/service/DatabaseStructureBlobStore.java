@@ -0,0 +1,145 @@
+package com.jash.folder_structure_generator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jash.folder_structure_generator.model.StructureBlob;
+import com.jash.folder_structure_generator.repository.StructureBlobRepository;
+import com.jash.folder_structure_generator.util.StructureContentCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@link StructureBlobStore} backed by the structure_blob table, with blobs compressed by
+ * {@link StructureContentCodec}.
+ *
+ * Recently used blobs are kept decoded in memory, bounded by history.blobs.cache.max-bytes,
+ * and published as the "history.blobs" cache metrics. Storing content that is already in
+ * memory skips the database entirely, which is the common case for templates. Blobs are
+ * never deleted, so a cached hash is always backed by a row.
+ *
+ * New blobs are written with a JDBC batch of inserts that ignore duplicates, so concurrent
+ * writers of the same content never fail on the primary key.
+ */
+@Service
+public class DatabaseStructureBlobStore implements StructureBlobStore {
+
+    private static final String INSERT_SQL = "INSERT IGNORE INTO structure_blob " +
+            "(hash, content, content_length, created_at) VALUES (?, ?, ?, ?)";
+
+    private final StructureBlobRepository blobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, String> cache;
+    private final Counter writtenCounter;
+    private final Counter deduplicatedCounter;
+
+    @Autowired
+    public DatabaseStructureBlobStore(StructureBlobRepository blobRepository,
+                                      JdbcTemplate jdbcTemplate,
+                                      @Value("${history.blobs.cache.max-bytes:16777216}") long maxBytes,
+                                      MeterRegistry meterRegistry) {
+        this.blobRepository = blobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                // Java strings take up to two bytes per character
+                .weigher((String hash, String content) -> hash.length() + 2 * content.length())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "history.blobs");
+        this.writtenCounter = Counter.builder("history.blobs.written")
+                .description("Structure contents stored for the first time")
+                .register(meterRegistry);
+        this.deduplicatedCounter = Counter.builder("history.blobs.deduplicated")
+                .description("Structure contents that were already stored")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String hash(String content) {
+        return hash(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String put(String content) {
+        String hash = hash(content);
+        putAll(Map.of(hash, content));
+        return hash;
+    }
+
+    @Override
+    public long putAll(Map<String, String> contents) {
+        Map<String, String> missing = new HashMap<>();
+        contents.forEach((hash, content) -> {
+            if (cache.getIfPresent(hash) != null) {
+                deduplicatedCounter.increment();
+            } else {
+                missing.put(hash, content);
+            }
+        });
+        if (missing.isEmpty()) {
+            return 0;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = missing.entrySet().stream()
+                .map(entry -> new Object[]{entry.getKey(), StructureContentCodec.encode(entry.getValue()),
+                        entry.getValue().getBytes(StandardCharsets.UTF_8).length, now})
+                .toList();
+        int[] inserted = jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        long storedBytes = 0;
+        for (int i = 0; i < inserted.length; i++) {
+            // 0 means the blob was already there; rewritten batches report SUCCESS_NO_INFO
+            if (inserted[i] == 0) {
+                deduplicatedCounter.increment();
+            } else {
+                writtenCounter.increment();
+                storedBytes += ((byte[]) rows.get(i)[1]).length;
+            }
+        }
+        missing.forEach(cache::put);
+        return storedBytes;
+    }
+
+    @Override
+    public Optional<String> get(String hash) {
+        return Optional.ofNullable(cache.get(hash, key -> blobRepository.findById(key)
+                .map(blob -> StructureContentCodec.decode(blob.getContent()))
+                .orElse(null)));
+    }
+
+    @Override
+    public Map<String, String> getAll(Collection<String> hashes) {
+        return cache.getAll(hashes, missing -> {
+            Map<String, String> loaded = new HashMap<>();
+            for (StructureBlob blob : blobRepository.findAllById(List.copyOf(missing))) {
+                loaded.put(blob.getHash(), StructureContentCodec.decode(blob.getContent()));
+            }
+            return loaded;
+        });
+    }
+
+    static String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.jash.folder_structure_generator.service;
+
+import com.jash.folder_structure_generator.model.EmailOutbox;
+import com.jash.folder_structure_generator.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers the email outbox. Every poll takes up to email.outbox.batch-size due emails
+ * and hands them to the mail sender in one call, which sends them all over a single SMTP
+ * connection instead of one handshake per email.
+ *
+ * Failed emails are retried with exponential backoff (email.outbox.backoff-initial,
+ * doubling up to email.outbox.backoff-max) and marked FAILED after
+ * email.outbox.max-attempts. Delivery is at least once: an email sent just before the
+ * process stops, but not yet marked as sent, goes out again after the restart. A single
+ * dispatcher is expected per database.
+ */
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailService emailService;
+    private final JavaMailSender mailSender;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration backoffInitial;
+    private final Duration backoffMax;
+    private final Duration retention;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    @Autowired
+    public EmailOutboxDispatcher(EmailOutboxRepository outboxRepository,
+                                 EmailService emailService,
+                                 JavaMailSender mailSender,
+                                 @Value("${email.outbox.batch-size:50}") int batchSize,
+                                 @Value("${email.outbox.max-attempts:6}") int maxAttempts,
+                                 @Value("${email.outbox.backoff-initial:PT30S}") Duration backoffInitial,
+                                 @Value("${email.outbox.backoff-max:PT30M}") Duration backoffMax,
+                                 @Value("${email.outbox.retention:P7D}") Duration retention,
+                                 MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.emailService = emailService;
+        this.mailSender = mailSender;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffInitial = backoffInitial;
+        this.backoffMax = backoffMax;
+        this.retention = retention;
+        this.sentCounter = Counter.builder("email.outbox.sent")
+                .description("Emails delivered to the mail server")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("email.outbox.retried")
+                .description("Failed deliveries scheduled for another attempt")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("email.outbox.failed")
+                .description("Emails given up on after the last attempt")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends due emails until none are left or a batch comes back with failures.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        int delivered;
+        do {
+            delivered = dispatchBatch();
+        } while (delivered == batchSize);
+    }
+
+    /**
+     * Sends one batch of due emails and records the outcome. Returns how many were delivered.
+     */
+    int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> batch = outboxRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                EmailOutbox.Status.PENDING, now, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<SimpleMailMessage, EmailOutbox> emails = new IdentityHashMap<>();
+        for (EmailOutbox email : batch) {
+            emails.put(emailService.toMessage(email), email);
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        try {
+            mailSender.send(emails.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            // Per-message failures are reported individually; none means the connection itself failed
+            failures = e.getFailedMessages().isEmpty() ? allFailed(emails, e) : e.getFailedMessages();
+        } catch (MailException e) {
+            failures = allFailed(emails, e);
+        }
+
+        int delivered = 0;
+        LocalDateTime finishedAt = LocalDateTime.now();
+        for (Map.Entry<SimpleMailMessage, EmailOutbox> entry : emails.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                markSent(entry.getValue(), finishedAt);
+                delivered++;
+            } else {
+                markFailed(entry.getValue(), failure, finishedAt);
+            }
+        }
+        outboxRepository.saveAll(batch);
+        if (delivered < batch.size()) {
+            logger.warn("Delivered {} of {} queued emails", delivered, batch.size());
+        }
+        return delivered;
+    }
+
+    /**
+     * Removes delivered emails once they are older than email.outbox.retention.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeSent() {
+        int purged = outboxRepository.deleteByStatusAndCreatedAtBefore(
+                EmailOutbox.Status.SENT, LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            logger.info("Purged {} delivered emails from the outbox", purged);
+        }
+    }
+
+    private void markSent(EmailOutbox email, LocalDateTime now) {
+        email.setStatus(EmailOutbox.Status.SENT);
+        email.setAttempts(email.getAttempts() + 1);
+        email.setSentAt(now);
+        email.setLastError(null);
+        sentCounter.increment();
+    }
+
+    private void markFailed(EmailOutbox email, Exception failure, LocalDateTime now) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLastError(truncate(failure.getMessage()));
+        if (attempts >= maxAttempts) {
+            email.setStatus(EmailOutbox.Status.FAILED);
+            failedCounter.increment();
+            logger.error("Giving up on {} email to {} after {} attempts: {}",
+                    email.getType(), email.getRecipient(), attempts, failure.getMessage());
+        } else {
+            email.setNextAttemptAt(now.plus(backoff(attempts)));
+            retriedCounter.increment();
+        }
+    }
+
+    /**
+     * Delay before the next attempt: backoff-initial, doubled per failed attempt, capped at backoff-max.
+     */
+    Duration backoff(int attempts) {
+        Duration delay = backoffInitial.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return delay.compareTo(backoffMax) > 0 ? backoffMax : delay;
+    }
+
+    private static Map<Object, Exception> allFailed(Map<SimpleMailMessage, EmailOutbox> emails, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        emails.keySet().forEach(message -> failures.put(message, e));
+        return failures;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
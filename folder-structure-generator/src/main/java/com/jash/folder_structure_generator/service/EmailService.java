@@ -1,80 +1,125 @@
 package com.jash.folder_structure_generator.service;
 
+import com.jash.folder_structure_generator.model.EmailOutbox;
+import com.jash.folder_structure_generator.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Account emails. The send methods only record the email in the outbox table, which
+ * takes a single insert; {@link EmailOutboxDispatcher} delivers it in the background.
+ * Requests therefore never wait on the mail server, and emails survive restarts and mail
+ * server outages.
+ *
+ * Login notifications for the same recipient are coalesced: the first one waits for
+ * email.outbox.login-coalesce-window, and further logins inside that window are folded
+ * into it, so a burst of logins produces a single email.
+ */
 @Service
 public class EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
 
-    private final JavaMailSender mailSender;
-    
+    private final EmailOutboxRepository outboxRepository;
+    private final Duration loginCoalesceWindow;
+    private final Counter coalescedCounter;
+
     @Value("${spring.mail.username}")
     private String fromEmail;
 
     @Autowired
-    public EmailService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    public EmailService(EmailOutboxRepository outboxRepository,
+                        @Value("${email.outbox.login-coalesce-window:PT1M}") Duration loginCoalesceWindow,
+                        MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.loginCoalesceWindow = loginCoalesceWindow;
+        this.coalescedCounter = Counter.builder("email.outbox.coalesced")
+                .description("Login notifications folded into an email that was already queued")
+                .register(meterRegistry);
     }
 
+    @Transactional
     public void sendWelcomeEmail(String toEmail, String username) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Welcome to StructZip, " + username + "!");
-            message.setText("Hello " + username + ",\n\n" +
-                    "Thank you for registering with StructZip, the AI-Powered File Structure Generator.\n" +
-                    "We're excited to have you onboard!\n\n" +
-                    "Happy coding!\n" +
-                    "The StructZip Team");
-            mailSender.send(message);
-            logger.info("Welcome email sent successfully to {}", toEmail);
-        } catch (Exception e) {
-            logger.error("Failed to send welcome email to {}: {}", toEmail, e.getMessage());
-        }
+        enqueue(EmailOutbox.Type.WELCOME, toEmail, username, null, LocalDateTime.now());
     }
 
+    @Transactional
     public void sendLoginNotification(String toEmail, String username) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Login Notification for your StructZip account");
-            message.setText("Hello " + username + ",\n\n" +
-                    "This is a notification that your StructZip account was just accessed.\n" +
-                    "If this was not you, please secure your account immediately.\n\n" +
-                    "Best regards,\n" +
-                    "The StructZip Team");
-            mailSender.send(message);
-            logger.info("Login notification email sent successfully to {}", toEmail);
-        } catch (Exception e) {
-            logger.error("Failed to send login notification email to {}: {}", toEmail, e.getMessage());
+        LocalDateTime now = LocalDateTime.now();
+        if (outboxRepository.coalesce(EmailOutbox.Type.LOGIN_NOTIFICATION, toEmail, now) > 0) {
+            coalescedCounter.increment();
+            return;
         }
+        enqueue(EmailOutbox.Type.LOGIN_NOTIFICATION, toEmail, username, null, now.plus(loginCoalesceWindow));
     }
 
+    @Transactional
     public void sendPasswordResetEmail(String toEmail, String username, String resetToken) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Password Reset Request - StructZip");
-            message.setText("Hello " + username + ",\n\n" +
-                    "We received a request to reset your password for your StructZip account.\n" +
-                    "If you made this request, please use the following reset code: " + resetToken + "\n\n" +
-                    "If you did not request a password reset, please ignore this email.\n\n" +
-                    "Best regards,\n" +
-                    "The StructZip Team");
-            mailSender.send(message);
-            logger.info("Password reset email sent successfully to {}", toEmail);
-        } catch (Exception e) {
-            logger.error("Failed to send password reset email to {}: {}", toEmail, e.getMessage());
+        enqueue(EmailOutbox.Type.PASSWORD_RESET, toEmail, username, resetToken, LocalDateTime.now());
+    }
+
+    /**
+     * Renders a queued email.
+     */
+    public SimpleMailMessage toMessage(EmailOutbox email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(email.getRecipient());
+        String username = email.getUsername();
+        switch (email.getType()) {
+            case WELCOME -> {
+                message.setSubject("Welcome to StructZip, " + username + "!");
+                message.setText("Hello " + username + ",\n\n" +
+                        "Thank you for registering with StructZip, the AI-Powered File Structure Generator.\n" +
+                        "We're excited to have you onboard!\n\n" +
+                        "Happy coding!\n" +
+                        "The StructZip Team");
+            }
+            case LOGIN_NOTIFICATION -> {
+                String accessed = email.getOccurrences() > 1
+                        ? "was just accessed " + email.getOccurrences() + " times"
+                        : "was just accessed";
+                message.setSubject("Login Notification for your StructZip account");
+                message.setText("Hello " + username + ",\n\n" +
+                        "This is a notification that your StructZip account " + accessed + ".\n" +
+                        "If this was not you, please secure your account immediately.\n\n" +
+                        "Best regards,\n" +
+                        "The StructZip Team");
+            }
+            case PASSWORD_RESET -> {
+                message.setSubject("Password Reset Request - StructZip");
+                message.setText("Hello " + username + ",\n\n" +
+                        "We received a request to reset your password for your StructZip account.\n" +
+                        "If you made this request, please use the following reset code: " + email.getPayload() + "\n\n" +
+                        "If you did not request a password reset, please ignore this email.\n\n" +
+                        "Best regards,\n" +
+                        "The StructZip Team");
+            }
         }
+        return message;
+    }
+
+    private void enqueue(EmailOutbox.Type type, String toEmail, String username, String payload,
+                         LocalDateTime sendAt) {
+        EmailOutbox email = new EmailOutbox();
+        email.setType(type);
+        email.setStatus(EmailOutbox.Status.PENDING);
+        email.setRecipient(toEmail);
+        email.setUsername(username);
+        email.setPayload(payload);
+        email.setOccurrences(1);
+        email.setNextAttemptAt(sendAt);
+        outboxRepository.save(email);
+        logger.debug("Queued {} email for {}", type, toEmail);
     }
 }
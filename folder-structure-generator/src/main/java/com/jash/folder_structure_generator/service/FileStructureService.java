@@ -1,291 +1,191 @@
 package com.jash.folder_structure_generator.service;
 
+import com.jash.folder_structure_generator.dto.HistoryPageResponse;
+import com.jash.folder_structure_generator.dto.HistorySummaryResponse;
 import com.jash.folder_structure_generator.model.FileStructureHistory;
 import com.jash.folder_structure_generator.model.User;
 import com.jash.folder_structure_generator.repository.FileStructureHistoryRepository;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.jash.folder_structure_generator.util.ArchiveTree;
+import com.jash.folder_structure_generator.util.DefaultFileContent;
+import com.jash.folder_structure_generator.util.IndentedTextParser;
+import com.jash.folder_structure_generator.util.JsonStructureParser;
+import com.jash.folder_structure_generator.util.StructureNode;
+import com.jash.folder_structure_generator.util.StructureParseException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.AbstractMap;
-import java.util.Iterator;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
 
 @Service
 public class FileStructureService {
 
+    private static final byte[] EMPTY_CONTENT = new byte[0];
+
     private final FileStructureHistoryRepository historyRepository;
-    private final ObjectMapper objectMapper;
+    private final StructureBlobStore blobStore;
+    private final HistoryWriteBehind historyWriter;
+    private final ArchiveCacheService archiveCache;
+    private final JsonStructureParser jsonParser;
+    private final IndentedTextParser textParser;
 
     @Autowired
-    public FileStructureService(FileStructureHistoryRepository historyRepository) {
+    public FileStructureService(FileStructureHistoryRepository historyRepository, StructureBlobStore blobStore,
+                                HistoryWriteBehind historyWriter, ArchiveCacheService archiveCache) {
         this.historyRepository = historyRepository;
-        this.objectMapper = new ObjectMapper();
+        this.blobStore = blobStore;
+        this.historyWriter = historyWriter;
+        this.archiveCache = archiveCache;
+        this.jsonParser = new JsonStructureParser(new ObjectMapper().getFactory());
+        this.textParser = new IndentedTextParser();
     }
 
     public byte[] generateZipFromStructure(String structureInput, String structureName, User user) throws IOException {
-        // Save to history with the original structure
-        FileStructureHistory history = new FileStructureHistory();
-        history.setStructureName(structureName);
-        history.setStructureContent(structureInput);
-        history.setUser(user);
-        historyRepository.save(history);
-
-        // Create temporary directory
-        Path tempDir = Files.createTempDirectory("file-structure-");
-
-        try {
-            // Parse and create structure from the input content
-            if (isJsonFormat(structureInput)) {
-                createStructureFromJson(structureInput, tempDir);
-            } else {
-                createStructureFromText(structureInput, tempDir);
-            }
-
-            // Create ZIP
-            return createZipFromDirectory(tempDir);
-        } finally {
-            // Clean up temporary directory
-            deleteDirectory(tempDir);
-        }
+        CompletableFuture<Void> saved = queueHistory(structureInput, structureName, user);
+        byte[] zip = buildZip(structureInput);
+        historyWriter.await(saved);
+        return zip;
     }
 
-    private boolean isJsonFormat(String input) {
-        try {
-            objectMapper.readTree(input);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+    /**
+     * Records the structure in history and returns its archive layout without writing it,
+     * so the caller can stream the ZIP straight to the client.
+     */
+    public ArchiveTree prepareArchive(String structureInput, String structureName, User user) throws IOException {
+        CompletableFuture<Void> saved = queueHistory(structureInput, structureName, user);
+        ArchiveTree archive = buildArchiveTree(structureInput);
+        historyWriter.await(saved);
+        return archive;
     }
 
-    private void createStructureFromJson(String jsonInput, Path baseDir) throws IOException {
-        JsonNode rootNode = objectMapper.readTree(jsonInput);
-        processJsonNode(rootNode, baseDir);
+    /**
+     * Records a structure in the user's history. The entry and its content, which goes to
+     * the blob store so the entry only references it, are written by {@link HistoryWriteBehind}.
+     */
+    public void saveHistory(String structureInput, String structureName, User user) {
+        historyWriter.await(queueHistory(structureInput, structureName, user));
     }
 
-    private void processJsonNode(JsonNode node, Path currentDir) throws IOException {
-        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
-
-        while (fields.hasNext()) {
-            Map.Entry<String, JsonNode> field = fields.next();
-            String name = field.getKey();
-            JsonNode value = field.getValue();
-
-            Path itemPath = currentDir.resolve(name.replaceAll("[/\\\\]$", ""));
-
-            if (value.isNull() || isFile(name)) {
-                // Create file
-                Files.createDirectories(itemPath.getParent());
-                if (!Files.exists(itemPath)) {
-                    Files.createFile(itemPath);
-                    String content = getDefaultFileContent(name);
-                    if (!content.isEmpty()) {
-                        Files.write(itemPath, content.getBytes());
-                    }
-                }
-            } else if (value.isArray()) {
-                // Create directory and process array items
-                Files.createDirectories(itemPath);
-                for (JsonNode arrayItem : value) {
-                    if (arrayItem.isTextual()) {
-                        String fileName = arrayItem.asText();
-                        Path filePath = itemPath.resolve(fileName);
-                        if (!Files.exists(filePath)) {
-                            Files.createFile(filePath);
-                            String content = getDefaultFileContent(fileName);
-                            if (!content.isEmpty()) {
-                                Files.write(filePath, content.getBytes());
-                            }
-                        }
-                    }
-                }
-            } else if (value.isObject()) {
-                // Create directory and process nested object
-                Files.createDirectories(itemPath);
-                processJsonNode(value, itemPath);
-            }
-        }
+    private CompletableFuture<Void> queueHistory(String structureInput, String structureName, User user) {
+        // Save to history with the original structure
+        return historyWriter.enqueue(user.getId(), structureName, structureInput);
     }
 
     /**
-     * Creates a file and directory structure from an indented text string.
-     * This corrected version uses a stack that holds both the indentation level and the path,
-     * making it much more robust at determining the correct parent for each item.
-     *
-     * @param textInput The indented text representing the folder structure.
-     * @param baseDir   The base directory to create the structure in.
-     * @throws IOException if an I/O error occurs.
+     * Builds the ZIP for a structure entirely in memory, without recording history.
+     * Structures that were generated before are served from the archive cache.
      */
-    private void createStructureFromText(String textInput, Path baseDir) throws IOException {
-        String[] lines = textInput.split("\n");
-        // The stack now stores a pair: the indentation level and the path.
-        java.util.Stack<Map.Entry<Integer, Path>> pathStack = new java.util.Stack<>();
-        // Start with a root-level entry with an indentation of -1.
-        pathStack.push(new AbstractMap.SimpleEntry<>(-1, baseDir));
-
-        for (String line : lines) {
-            if (line.trim().isEmpty()) {
-                continue;
-            }
-
-            // --- Calculate the current line's indentation level ---e
-            int indentLevel = 0;
-            for (char c : line.toCharArray()) {
-                if (c == ' ') {
-                    indentLevel++;
-                } else if (c == '\t') {
-                    indentLevel += 4; // Treat a tab as 4 spaces for consistency.
-                } else {
-                    break;
-                }
-            }
-
-            String itemName = line.trim();
-
-            // --- Find the correct parent directory ---
-            // Pop from the stack until we find a directory with a smaller indentation level.
-            // This is the parent of the current item.
-            while (pathStack.peek().getKey() >= indentLevel) {
-                pathStack.pop();
-            }
-            Path parentDir = pathStack.peek().getValue();
-
-            // --- Create the file or directory ---
-            if (isFile(itemName)) {
-                Path filePath = parentDir.resolve(itemName);
-                Files.createDirectories(filePath.getParent()); // Ensure parent exists
-                if (!Files.exists(filePath)) {
-                    Files.createFile(filePath);
-                    String content = getDefaultFileContent(itemName);
-                    if (!content.isEmpty()) {
-                        Files.write(filePath, content.getBytes());
-                    }
-                }
-            } else {
-                // It's a directory.
-                // Remove any trailing slashes to prevent issues with path resolution.
-                Path dirPath = parentDir.resolve(itemName.replaceAll("[/\\\\]$", ""));
-                Files.createDirectories(dirPath);
-                // Push the new directory onto the stack with its indentation level.
-                pathStack.push(new AbstractMap.SimpleEntry<>(indentLevel, dirPath));
-            }
-        }
+    public byte[] buildZip(String structureInput) throws IOException {
+        return archiveCache.getOrBuild(buildArchiveTree(structureInput));
     }
 
-
     /**
-     * A more robust check to determine if a given name is a file or a directory.
-     * - If it ends with a slash, it's a directory.
-     * - Otherwise, if it contains a dot, we assume it's a file.
-     * - Otherwise, it's a directory.
+     * Builds the ZIP for a prepared archive, reporting the number of files written to the listener.
      */
-    private boolean isFile(String name) {
-        String trimmedName = name.trim();
-        if (trimmedName.endsWith("/") || trimmedName.endsWith("\\")) {
-            return false; // Definitely a directory
-        }
-        // A simple but effective heuristic: if it has a file extension, it's a file.
-        // This handles cases like "com.example.project" correctly being a directory.
-        if (trimmedName.lastIndexOf('.') > trimmedName.lastIndexOf('/')) {
-            return true;
-        }
-        return false;
+    public byte[] buildZip(ArchiveTree archive, IntConsumer progress) throws IOException {
+        return archiveCache.getOrBuild(archive, progress);
     }
 
-    private String getDefaultFileContent(String fileName) {
-        String extension = getFileExtension(fileName).toLowerCase();
+    /**
+     * Writes the ZIP for a prepared archive to the stream, from the archive cache when possible.
+     */
+    public void writeZip(ArchiveTree archive, OutputStream out) throws IOException {
+        archiveCache.write(archive, out);
+    }
 
-        switch (extension) {
-            case "java":
-                return "public class " + getClassName(fileName) + " {\n    // TODO: Implement\n}\n";
-            case "js":
-                return "// " + fileName + "\nconsole.log('Hello from " + fileName + "');\n";
-            case "py":
-                return "# " + fileName + "\nprint('Hello from " + fileName + "')\n";
-            case "html":
-                return "<!DOCTYPE html>\n<html>\n<head>\n    <title>" + fileName + "</title>\n</head>\n<body>\n    <h1>Hello World</h1>\n</body>\n</html>\n";
-            case "css":
-                return "/* " + fileName + " */\nbody {\n    font-family: Arial, sans-serif;\n}\n";
-            case "md":
-                return "# " + fileName.replace(".md", "") + "\n\nThis is a markdown file.\n";
-            case "txt":
-                return "This is a text file: " + fileName + "\n";
-            case "json":
-                return "{\n    \"name\": \"" + fileName + "\",\n    \"description\": \"Generated JSON file\"\n}\n";
-            case "xml":
-                return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<root>\n    <message>Hello from " + fileName + "</message>\n</root>\n";
-            default:
-                return "";
-        }
+    /**
+     * Parses the structure input (JSON or indented text) into the in-memory archive layout.
+     */
+    public ArchiveTree buildArchiveTree(String structureInput) throws IOException {
+        ArchiveTree tree = new ArchiveTree();
+        addNodes(tree, tree.getRoot(), parseStructure(structureInput));
+        return tree;
     }
 
-    private String getFileExtension(String fileName) {
-        int lastDot = fileName.lastIndexOf('.');
-        return lastDot > 0 ? fileName.substring(lastDot + 1) : "";
+    /**
+     * Parses the structure input into its tree. JSON is tried first, anything that is not
+     * valid JSON is read as indented text.
+     */
+    public List<StructureNode> parseStructure(String structureInput) throws IOException {
+        List<StructureNode> nodes = jsonParser.parse(structureInput);
+        return nodes != null ? nodes : textParser.parse(structureInput);
     }
 
-    private String getClassName(String fileName) {
-        int lastDot = fileName.lastIndexOf('.');
-        if (lastDot == -1) {
-            return fileName.substring(0, 1).toUpperCase() + fileName.substring(1);
+    private void addNodes(ArchiveTree tree, ArchiveTree.Directory parentDir, List<StructureNode> nodes) throws IOException {
+        for (StructureNode node : nodes) {
+            try {
+                if (node instanceof StructureNode.Directory directory) {
+                    addNodes(tree, tree.directory(parentDir, directory.name()), directory.children());
+                } else {
+                    String content = DefaultFileContent.forFileName(node.name());
+                    tree.file(parentDir, node.name(),
+                            content.isEmpty() ? EMPTY_CONTENT : content.getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (StructureParseException e) {
+                throw e;
+            } catch (IOException e) {
+                throw new StructureParseException(node.line(), e.getMessage());
+            }
         }
-        String nameWithoutExtension = fileName.substring(0, lastDot);
-        return nameWithoutExtension.substring(0, 1).toUpperCase() + nameWithoutExtension.substring(1);
     }
 
-    private byte[] createZipFromDirectory(Path sourceDir) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-
-        try (ZipOutputStream zos = new ZipOutputStream(baos)) {
-            Files.walk(sourceDir)
-                    .filter(path -> !Files.isDirectory(path))
-                    .forEach(path -> {
-                        // We need to make sure the entry name uses forward slashes for compatibility
-                        String entryName = sourceDir.relativize(path).toString().replace('\\', '/');
-                        ZipEntry zipEntry = new ZipEntry(entryName);
-                        try {
-                            zos.putNextEntry(zipEntry);
-                            Files.copy(path, zos);
-                            zos.closeEntry();
-                        } catch (IOException e) {
-                            // Using a more specific runtime exception
-                            throw new RuntimeException("Failed to add entry to zip: " + entryName, e);
-                        }
-                    });
+    public List<FileStructureHistory> getUserHistory(User user) {
+        List<FileStructureHistory> history = historyRepository.findByUserOrderByCreatedAtDesc(user);
+        Map<String, String> contents = blobStore.getAll(history.stream()
+                .map(FileStructureHistory::getContentHash)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        for (FileStructureHistory entry : history) {
+            entry.setStructureContent(entry.getContentHash() != null
+                    ? contents.get(entry.getContentHash())
+                    : entry.getInlineStructureContent());
         }
-
-        return baos.toByteArray();
+        return history;
     }
 
-    private void deleteDirectory(Path directory) {
-        if (directory != null && Files.exists(directory)) {
-            try {
-                Files.walk(directory)
-                        .sorted((a, b) -> b.compareTo(a)) // Delete files before directories
-                        .forEach(path -> {
-                            try {
-                                Files.delete(path);
-                            } catch (IOException e) {
-                                // Log or handle the error, but don't stop the cleanup process
-                                System.err.println("Failed to delete: " + path + " - " + e.getMessage());
-                            }
-                        });
-            } catch (IOException e) {
-                System.err.println("Failed to walk directory for deletion: " + directory + " - " + e.getMessage());
-            }
+    /**
+     * Returns one page of the user's history without structure content, newest first.
+     * The cursor is the nextCursor of the previous page, or null for the first page.
+     */
+    public HistoryPageResponse getHistoryPage(User user, String cursor, int limit) {
+        // One extra row tells whether another page follows
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<HistorySummaryResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = historyRepository.findSummaries(user.getId(), page);
+        } else {
+            HistoryCursor position = HistoryCursor.decode(cursor);
+            rows = historyRepository.findSummariesAfter(user.getId(), position.createdAt(), position.id(), page);
         }
+
+        if (rows.size() <= limit) {
+            return new HistoryPageResponse(rows, null);
+        }
+        List<HistorySummaryResponse> items = rows.subList(0, limit);
+        HistorySummaryResponse last = items.get(items.size() - 1);
+        return new HistoryPageResponse(items, new HistoryCursor(last.getCreatedAt(), last.getId()).encode());
     }
 
-    public List<FileStructureHistory> getUserHistory(User user) {
-        return historyRepository.findByUserOrderByCreatedAtDesc(user);
+    /**
+     * Returns the structure content of one of the user's history entries.
+     */
+    public Optional<String> getHistoryContent(Long id, User user) {
+        return historyRepository.findByIdAndUserId(id, user.getId())
+                .flatMap(history -> history.getContentHash() != null
+                        ? blobStore.get(history.getContentHash())
+                        : Optional.ofNullable(history.getInlineStructureContent()));
     }
 
     public void deleteHistoryItem(Long id, User user) {
@@ -299,4 +199,29 @@ public class FileStructureService {
 
         historyRepository.deleteById(id);
     }
-}
\ No newline at end of file
+
+    /**
+     * Position of the last entry of a history page, handed to clients as an opaque string.
+     */
+    record HistoryCursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            String value = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static HistoryCursor decode(String cursor) {
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = value.indexOf('|');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                return new HistoryCursor(LocalDateTime.parse(value.substring(0, separator)),
+                        Long.parseLong(value.substring(separator + 1)));
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
+}
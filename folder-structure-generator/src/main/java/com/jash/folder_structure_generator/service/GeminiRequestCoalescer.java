@@ -0,0 +1,71 @@
+package com.jash.folder_structure_generator.service;
+
+import com.jash.folder_structure_generator.service.GeminiResponseCache.Endpoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for Gemini calls: concurrent requests with the same key share one
+ * upstream call and all receive its result.
+ *
+ * The shared call is removed once it terminates, so its result (or failure) is only
+ * reused by requests that arrived while it was in flight. Each caller applies its own
+ * fallback, so a failed shared call falls back for everyone waiting on it. A caller
+ * cancelling does not cancel the call for the others.
+ */
+@Service
+public class GeminiRequestCoalescer {
+
+    private final boolean enabled;
+    private final Map<String, Mono<String>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Endpoint, Counter> savedCalls = new EnumMap<>(Endpoint.class);
+
+    @Autowired
+    public GeminiRequestCoalescer(@Value("${gemini.coalescing.enabled:true}") boolean enabled,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        for (Endpoint endpoint : Endpoint.values()) {
+            savedCalls.put(endpoint, Counter.builder("gemini.requests.coalesced")
+                    .description("Gemini calls saved by joining an identical in-flight call")
+                    .tag("endpoint", endpoint.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("gemini.requests.in-flight", inFlight, Map::size)
+                .description("Distinct Gemini calls currently in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Joins the in-flight call for the key, or starts one with the supplier.
+     */
+    public Mono<String> coalesce(Endpoint endpoint, String key, Supplier<Mono<String>> call) {
+        if (!enabled) {
+            return Mono.defer(call);
+        }
+        String flightKey = endpoint.name() + ':' + key;
+        return Mono.defer(() -> {
+            AtomicBoolean started = new AtomicBoolean();
+            Mono<String> shared = inFlight.computeIfAbsent(flightKey, k -> {
+                started.set(true);
+                return Mono.defer(call)
+                        .doFinally(signal -> inFlight.remove(k))
+                        .cache();
+            });
+            if (!started.get()) {
+                savedCalls.get(endpoint).increment();
+            }
+            return shared;
+        });
+    }
+}
@@ -0,0 +1,110 @@
+package com.jash.folder_structure_generator.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Resilience layer around the Gemini client.
+ *
+ * Every upstream call runs inside the "gemini" bulkhead, under a deadline, and behind
+ * the "gemini" circuit breaker, which opens on error rate or slow-call rate. Only calls
+ * admitted by the bulkhead reach the breaker. While the
+ * breaker is open or the bulkhead is full, calls fail immediately, so callers serve
+ * their fallback without waiting on Gemini. Breakers and bulkheads are configured under
+ * resilience4j.*; state transitions are counted in "gemini.circuit.transitions".
+ */
+@Service
+public class GeminiResilience {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeminiResilience.class);
+
+    private static final String INSTANCE = "gemini";
+    private static final String STREAM_INSTANCE = "gemini-stream";
+
+    private final CircuitBreaker circuitBreaker;
+    private final CircuitBreaker streamCircuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Duration callTimeout;
+
+    @Autowired
+    public GeminiResilience(CircuitBreakerRegistry circuitBreakerRegistry,
+                            BulkheadRegistry bulkheadRegistry,
+                            @Value("${gemini.resilience.call-timeout:PT20S}") Duration callTimeout,
+                            MeterRegistry meterRegistry) {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE);
+        this.streamCircuitBreaker = circuitBreakerRegistry.circuitBreaker(STREAM_INSTANCE);
+        this.bulkhead = bulkheadRegistry.bulkhead(INSTANCE);
+        this.callTimeout = callTimeout;
+
+        countTransitions(circuitBreaker, meterRegistry);
+        countTransitions(streamCircuitBreaker, meterRegistry);
+    }
+
+    /**
+     * Applies the bulkhead, the call deadline and the circuit breaker to a single call.
+     * The breaker sits inside the bulkhead, so calls shed locally by a full bulkhead never
+     * count as Gemini failures.
+     */
+    public <T> Mono<T> protect(Mono<T> call) {
+        return call
+                .timeout(callTimeout)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    /**
+     * Same as {@link #protect(Mono)} for a streamed call; the deadline applies to the wait
+     * for each chunk rather than to the whole stream. Streams use their own
+     * "gemini-stream" breaker: a long answer is a long call, so a stream's duration says
+     * nothing about Gemini's health and only its failures (including a stalled chunk) count.
+     */
+    public <T> Flux<T> protect(Flux<T> call) {
+        return call
+                .timeout(callTimeout)
+                .transformDeferred(CircuitBreakerOperator.of(streamCircuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    private static void countTransitions(CircuitBreaker breaker, MeterRegistry meterRegistry) {
+        breaker.getEventPublisher().onStateTransition(event -> {
+            CircuitBreaker.StateTransition transition = event.getStateTransition();
+            logger.warn("Circuit breaker {} changed from {} to {}",
+                    breaker.getName(), transition.getFromState(), transition.getToState());
+            Counter.builder("gemini.circuit.transitions")
+                    .description("Gemini circuit breaker state transitions")
+                    .tag("name", breaker.getName())
+                    .tag("from", transition.getFromState().name().toLowerCase())
+                    .tag("to", transition.getToState().name().toLowerCase())
+                    .register(meterRegistry)
+                    .increment();
+        });
+    }
+
+    /**
+     * True for failures where Gemini was never called or gave up on, which are expected
+     * while the service is degraded and not worth a stack trace.
+     */
+    public static boolean isShortCircuit(Throwable error) {
+        return error instanceof CallNotPermittedException
+                || error instanceof BulkheadFullException
+                || error instanceof TimeoutException;
+    }
+}
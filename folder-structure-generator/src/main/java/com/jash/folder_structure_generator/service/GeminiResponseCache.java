@@ -0,0 +1,121 @@
+package com.jash.folder_structure_generator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * TTL and size bounded cache of Gemini answers, one cache per endpoint.
+ *
+ * Keys are a SHA-256 over the normalized user input and the generation config, so large
+ * structures do not stay in memory twice. Only real Gemini answers are stored; fallback
+ * responses are produced outside the cache. Hit rates are published as the
+ * "gemini.chat" and "gemini.validation" cache metrics.
+ */
+@Service
+public class GeminiResponseCache {
+
+    public enum Endpoint {
+        CHAT("gemini.chat"),
+        VALIDATION("gemini.validation");
+
+        private final String metricName;
+
+        Endpoint(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    private final Map<Endpoint, Cache<String, String>> caches = new EnumMap<>(Endpoint.class);
+
+    @Autowired
+    public GeminiResponseCache(@Value("${gemini.cache.chat.enabled:true}") boolean chatEnabled,
+                               @Value("${gemini.cache.validation.enabled:true}") boolean validationEnabled,
+                               @Value("${gemini.cache.ttl:PT1H}") Duration ttl,
+                               @Value("${gemini.cache.max-entries:10000}") long maxEntries,
+                               MeterRegistry meterRegistry) {
+        if (chatEnabled) {
+            caches.put(Endpoint.CHAT, createCache(Endpoint.CHAT, ttl, maxEntries, meterRegistry));
+        }
+        if (validationEnabled) {
+            caches.put(Endpoint.VALIDATION, createCache(Endpoint.VALIDATION, ttl, maxEntries, meterRegistry));
+        }
+    }
+
+    /**
+     * Builds the cache key for a normalized input and the generation config sent with it.
+     */
+    public String key(String normalizedInput, String generationConfig) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(generationConfig.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalizedInput.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public boolean isEnabled(Endpoint endpoint) {
+        return caches.containsKey(endpoint);
+    }
+
+    /**
+     * Returns the cached answer, or null on a miss or when caching is off for the endpoint.
+     */
+    public String get(Endpoint endpoint, String key) {
+        Cache<String, String> cache = caches.get(endpoint);
+        return cache == null ? null : cache.getIfPresent(key);
+    }
+
+    public void put(Endpoint endpoint, String key, String answer) {
+        Cache<String, String> cache = caches.get(endpoint);
+        if (cache != null) {
+            cache.put(key, answer);
+        }
+    }
+
+    /**
+     * Serves the answer from the cache, or subscribes to the loader and stores what it emits.
+     * The lookup happens on subscription.
+     */
+    public Mono<String> getOrLoad(Endpoint endpoint, String key, Supplier<Mono<String>> loader) {
+        Cache<String, String> cache = caches.get(endpoint);
+        if (cache == null) {
+            return Mono.defer(loader);
+        }
+        return Mono.defer(() -> {
+            String cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return loader.get().doOnNext(answer -> cache.put(key, answer));
+        });
+    }
+
+    private static Cache<String, String> createCache(Endpoint endpoint, Duration ttl, long maxEntries,
+                                                     MeterRegistry meterRegistry) {
+        Cache<String, String> cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, endpoint.metricName);
+        return cache;
+    }
+}
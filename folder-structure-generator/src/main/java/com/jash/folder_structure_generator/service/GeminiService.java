@@ -1,17 +1,35 @@
 package com.jash.folder_structure_generator.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jash.folder_structure_generator.service.GeminiResponseCache.Endpoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Talks to the Gemini API without blocking: every call returns a {@link Mono} that
+ * completes on the HTTP client's event loop, and falls back to a local answer when the
+ * key is missing or the API fails.
+ */
 @Service
 public class GeminiService {
 
@@ -23,87 +41,59 @@ public class GeminiService {
     @Value("${gemini.api.url}")
     private String apiUrl;
 
+    // Streaming variant of the generate endpoint; derived from gemini.api.url when not set
+    @Value("${gemini.api.stream-url:}")
+    private String streamUrl;
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
+    private final GeminiResponseCache responseCache;
+    private final GeminiRequestCoalescer requestCoalescer;
+    private final GeminiResilience geminiResilience;
+    private final Timer firstTokenTimer;
 
-    public GeminiService() {
-        this.webClient = WebClient.builder().build();
+    @Autowired
+    public GeminiService(@Qualifier("geminiWebClient") WebClient webClient,
+                         GeminiResponseCache responseCache,
+                         GeminiRequestCoalescer requestCoalescer,
+                         GeminiResilience geminiResilience,
+                         MeterRegistry meterRegistry) {
+        this.webClient = webClient;
         this.objectMapper = new ObjectMapper();
+        this.responseCache = responseCache;
+        this.requestCoalescer = requestCoalescer;
+        this.geminiResilience = geminiResilience;
+        this.firstTokenTimer = Timer.builder("gemini.chat.stream.first-token")
+                .description("Time from a streaming chat request to the first chunk from Gemini")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
     }
 
-    public String validateAndCorrectStructure(String structureContent) throws IOException {
+    public Mono<String> validateAndCorrectStructure(String structureContent) {
         logger.info("Starting Gemini validation for structure content");
         
-        if ("YOUR_GEMINI_API_KEY_HERE".equals(apiKey) || apiKey == null || apiKey.trim().isEmpty()) {
+        if (!isApiKeyConfigured()) {
             logger.warn("Gemini API key not configured, using basic improvement");
-            return basicStructureImprovement(structureContent);
+            return Mono.just(basicStructureImprovement(structureContent));
         }
         
-        try {
-            // Create the request payload for Gemini API
-            ObjectNode requestBody = objectMapper.createObjectNode();
-            
-            // Create contents array
-            ArrayNode contents = objectMapper.createArrayNode();
-            ObjectNode content = objectMapper.createObjectNode();
-            
-            // Create parts array
-            ArrayNode parts = objectMapper.createArrayNode();
-            ObjectNode part = objectMapper.createObjectNode();
-            part.put("text", createValidationPrompt(structureContent));
-            parts.add(part);
-            
-            content.set("parts", parts);
-            contents.add(content);
-            requestBody.set("contents", contents);
-            
-            // Add generation config for better results
-            ObjectNode generationConfig = objectMapper.createObjectNode();
-            generationConfig.put("temperature", 0.1);
-            generationConfig.put("topK", 40);
-            generationConfig.put("topP", 0.95);
-            generationConfig.put("maxOutputTokens", 2048);
-            requestBody.set("generationConfig", generationConfig);
-            
-            logger.info("Sending request to Gemini API");
-            
-            // Make the API call
-            String response = webClient.post()
-                .uri(apiUrl + "?key=" + apiKey)
-                .bodyValue(requestBody.toString())
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
-            
-            if (response != null) {
-                JsonNode responseJson = objectMapper.readTree(response);
-                
-                // Extract the generated text from the response
-                if (responseJson.has("candidates") && responseJson.get("candidates").isArray() && 
-                    responseJson.get("candidates").size() > 0) {
-                    
-                    JsonNode candidate = responseJson.get("candidates").get(0);
-                    if (candidate.has("content") && candidate.get("content").has("parts") && 
-                        candidate.get("content").get("parts").isArray() && 
-                        candidate.get("content").get("parts").size() > 0) {
-                        
-                        String validatedStructure = candidate.get("content").get("parts").get(0).get("text").asText();
-                        logger.info("Successfully validated structure with Gemini");
-                        return validatedStructure.trim();
-                    }
-                }
-                
-                logger.warn("Unexpected response format from Gemini API: {}", response);
-            }
-            
-            logger.warn("No valid response from Gemini, returning original structure");
-            return structureContent;
-            
-        } catch (Exception e) {
-            logger.error("Error validating structure with Gemini: {}", e.getMessage(), e);
-            logger.info("Falling back to original structure due to Gemini error");
-            return structureContent; // Fallback to original structure
-        }
+        return generateContent(Endpoint.VALIDATION, normalizeStructure(structureContent),
+                createValidationPrompt(structureContent), 0.1)
+            .map(GeminiService::stripCodeFence)
+            .doOnNext(validated -> logger.info("Successfully validated structure with Gemini"))
+            .switchIfEmpty(Mono.fromSupplier(() -> {
+                logger.warn("No valid response from Gemini, returning original structure");
+                return structureContent;
+            }))
+            .onErrorResume(e -> {
+                // Also covers an open circuit breaker or a full bulkhead
+                logFailure("Error validating structure with Gemini", e);
+                logger.info("Falling back to basic improvement due to Gemini error");
+                return Mono.just(basicStructureImprovement(structureContent));
+            });
     }
     
     private String basicStructureImprovement(String structureContent) {
@@ -158,82 +148,252 @@ public class GeminiService {
                 	•	Do not include explanations, extra formatting, or markdown.
                 	•	Always return the final structure in the same format as the input (text or JSON).
             **Return only the corrected/improved structure without any explanations, markdown formatting, or code blocks.**
+
+            Input:
+            %s
             """, structureContent);
     }
 
-    public String chatWithGemini(String userMessage) throws IOException {
+    public Mono<String> chatWithGemini(String userMessage) {
         logger.info("Starting Gemini chat with message: {}", userMessage);
         
-        if ("YOUR_GEMINI_API_KEY_HERE".equals(apiKey) || apiKey == null || apiKey.trim().isEmpty()) {
+        if (!isApiKeyConfigured()) {
             logger.warn("Gemini API key not configured, returning fallback response");
-            return getFallbackResponse(userMessage);
+            return Mono.just(getFallbackResponse(userMessage));
         }
         
-        try {
-            // Create the request payload for Gemini API
-            ObjectNode requestBody = objectMapper.createObjectNode();
-            
-            // Create contents array
-            ArrayNode contents = objectMapper.createArrayNode();
-            ObjectNode content = objectMapper.createObjectNode();
-            
-            // Create parts array
-            ArrayNode parts = objectMapper.createArrayNode();
-            ObjectNode part = objectMapper.createObjectNode();
-            part.put("text", createChatPrompt(userMessage));
-            parts.add(part);
-            
-            content.set("parts", parts);
-            contents.add(content);
-            requestBody.set("contents", contents);
-            
-            // Add generation config for better results
-            ObjectNode generationConfig = objectMapper.createObjectNode();
-            generationConfig.put("temperature", 0.7);
-            generationConfig.put("topK", 40);
-            generationConfig.put("topP", 0.95);
-            generationConfig.put("maxOutputTokens", 2048);
-            requestBody.set("generationConfig", generationConfig);
-            
-            logger.info("Sending chat request to Gemini API");
-            
-            // Make the API call
-            String response = webClient.post()
-                .uri(apiUrl + "?key=" + apiKey)
+        return generateContent(Endpoint.CHAT, normalizeMessage(userMessage),
+                createChatPrompt(userMessage), 0.7)
+            .map(String::trim)
+            .doOnNext(response -> logger.info("Successfully received response from Gemini"))
+            .switchIfEmpty(Mono.fromSupplier(() -> {
+                logger.warn("No valid response from Gemini, returning fallback response");
+                return getFallbackResponse(userMessage);
+            }))
+            .onErrorResume(e -> {
+                logFailure("Error chatting with Gemini", e);
+                logger.info("Falling back to default response due to Gemini error");
+                return Mono.just(getFallbackResponse(userMessage));
+            });
+    }
+
+    /**
+     * Streams the chat answer as text chunks while Gemini generates them.
+     *
+     * Cancelling the subscription (for example when the client disconnects) cancels the
+     * upstream request. If Gemini fails before sending anything, the fallback response is
+     * emitted as a single chunk; a failure after that ends the stream early. Cached answers
+     * are sent as a single chunk, and complete streamed answers are added to the cache.
+     */
+    public Flux<String> streamChatWithGemini(String userMessage) {
+        logger.info("Starting streaming Gemini chat with message: {}", userMessage);
+
+        if (!isApiKeyConfigured()) {
+            logger.warn("Gemini API key not configured, returning fallback response");
+            return Flux.just(getFallbackResponse(userMessage));
+        }
+
+        ObjectNode requestBody = createRequestBody(createChatPrompt(userMessage), 0.7);
+        String cacheKey = responseCache.key(normalizeMessage(userMessage), requestBody.get("generationConfig").toString());
+
+        return Flux.defer(() -> {
+            String cached = responseCache.get(Endpoint.CHAT, cacheKey);
+            if (cached != null) {
+                return Flux.just(cached);
+            }
+
+            long start = System.nanoTime();
+            AtomicBoolean received = new AtomicBoolean();
+            StringBuilder answer = new StringBuilder();
+
+            return geminiResilience.protect(webClient.post()
+                .uri(resolveStreamUrl() + "?alt=sse&key=" + apiKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
                 .bodyValue(requestBody.toString())
                 .retrieve()
-                .bodyToMono(String.class)
-                .block();
-            
-            if (response != null) {
-                JsonNode responseJson = objectMapper.readTree(response);
-                
-                // Extract the generated text from the response
-                if (responseJson.has("candidates") && responseJson.get("candidates").isArray() && 
-                    responseJson.get("candidates").size() > 0) {
-                    
-                    JsonNode candidate = responseJson.get("candidates").get(0);
-                    if (candidate.has("content") && candidate.get("content").has("parts") && 
-                        candidate.get("content").get("parts").isArray() && 
-                        candidate.get("content").get("parts").size() > 0) {
-                        
-                        String aiResponse = candidate.get("content").get("parts").get(0).get("text").asText();
-                        logger.info("Successfully received response from Gemini");
-                        return aiResponse.trim();
+                .bodyToFlux(SSE_TYPE))
+                .<String>handle((event, sink) -> {
+                    if (event.data() == null) {
+                        return;
+                    }
+                    try {
+                        String text = extractText(objectMapper.readTree(event.data()));
+                        if (text != null && !text.isEmpty()) {
+                            sink.next(text);
+                        }
+                    } catch (JsonProcessingException e) {
+                        sink.error(e);
                     }
+                })
+                .doOnNext(chunk -> {
+                    if (received.compareAndSet(false, true)) {
+                        firstTokenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                    answer.append(chunk);
+                })
+                .doOnComplete(() -> {
+                    // Only complete answers are cached; failed or cancelled streams never get here
+                    if (received.get()) {
+                        responseCache.put(Endpoint.CHAT, cacheKey, answer.toString().trim());
+                    }
+                })
+                .switchIfEmpty(Flux.defer(() -> {
+                    logger.warn("No valid response from Gemini stream, returning fallback response");
+                    return Flux.just(getFallbackResponse(userMessage));
+                }))
+                .onErrorResume(e -> {
+                    logFailure("Error streaming chat from Gemini", e);
+                    if (received.get()) {
+                        return Flux.empty();
+                    }
+                    logger.info("Falling back to default response due to Gemini error");
+                    return Flux.just(getFallbackResponse(userMessage));
+                })
+                .doOnCancel(() -> logger.info("Streaming chat cancelled by client, closing Gemini request"));
+        });
+    }
+
+    private String resolveStreamUrl() {
+        if (streamUrl != null && !streamUrl.isBlank()) {
+            return streamUrl;
+        }
+        return apiUrl.replace(":generateContent", ":streamGenerateContent");
+    }
+
+    private void logFailure(String message, Throwable e) {
+        if (GeminiResilience.isShortCircuit(e)) {
+            // Open circuit, full bulkhead or deadline: expected while Gemini is degraded
+            logger.warn("{}: {}", message, e.toString());
+        } else {
+            logger.error("{}: {}", message, e.getMessage(), e);
+        }
+    }
+
+    private boolean isApiKeyConfigured() {
+        return apiKey != null && !apiKey.trim().isEmpty() && !"YOUR_GEMINI_API_KEY_HERE".equals(apiKey);
+    }
+
+    /**
+     * Sends a single-turn prompt and emits the text of the first candidate, or completes
+     * empty when the response has no text. Answers are cached per endpoint, keyed on the
+     * normalized input and the generation config, and concurrent misses for the same key
+     * share one upstream call.
+     */
+    private Mono<String> generateContent(Endpoint endpoint, String normalizedInput, String prompt, double temperature) {
+        ObjectNode requestBody = createRequestBody(prompt, temperature);
+        String cacheKey = responseCache.key(normalizedInput, requestBody.get("generationConfig").toString());
+        return responseCache.getOrLoad(endpoint, cacheKey,
+                () -> requestCoalescer.coalesce(endpoint, cacheKey, () -> sendRequest(requestBody)));
+    }
+
+    private Mono<String> sendRequest(ObjectNode requestBody) {
+        logger.info("Sending request to Gemini API");
+
+        return geminiResilience.protect(webClient.post()
+            .uri(apiUrl + "?key=" + apiKey)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(requestBody.toString())
+            .retrieve()
+            .bodyToMono(String.class))
+            .handle((response, sink) -> {
+                try {
+                    String text = extractText(objectMapper.readTree(response));
+                    if (text != null) {
+                        sink.next(text);
+                    } else {
+                        logger.warn("Unexpected response format from Gemini API: {}", response);
+                    }
+                } catch (JsonProcessingException e) {
+                    sink.error(e);
                 }
+            });
+    }
+
+    /**
+     * Removes a surrounding markdown code block, which the model sometimes adds despite
+     * being asked not to.
+     */
+    static String stripCodeFence(String text) {
+        String trimmed = text.trim();
+        if (!trimmed.startsWith("```")) {
+            return trimmed;
+        }
+        int firstLineEnd = trimmed.indexOf('\n');
+        if (firstLineEnd < 0) {
+            return trimmed;
+        }
+        String body = trimmed.substring(firstLineEnd + 1);
+        if (body.stripTrailing().endsWith("```")) {
+            body = body.stripTrailing();
+            body = body.substring(0, body.length() - 3);
+        }
+        return body.trim();
+    }
+
+    /**
+     * Questions that differ only in case or spacing get the same answer.
+     */
+    static String normalizeMessage(String message) {
+        return message.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Indentation and names are significant in a structure, so only line endings,
+     * trailing whitespace and surrounding blank lines are normalized.
+     */
+    static String normalizeStructure(String structure) {
+        return structure.replace("\r\n", "\n")
+                .replace('\r', '\n')
+                .replaceAll("[ \\t]+\n", "\n")
+                .replaceFirst("^\n+", "")
+                .stripTrailing();
+    }
+
+    private ObjectNode createRequestBody(String prompt, double temperature) {
+        // Create the request payload for Gemini API
+        ObjectNode requestBody = objectMapper.createObjectNode();
+        
+        // Create contents array
+        ArrayNode contents = objectMapper.createArrayNode();
+        ObjectNode content = objectMapper.createObjectNode();
+        
+        // Create parts array
+        ArrayNode parts = objectMapper.createArrayNode();
+        ObjectNode part = objectMapper.createObjectNode();
+        part.put("text", prompt);
+        parts.add(part);
+        
+        content.set("parts", parts);
+        contents.add(content);
+        requestBody.set("contents", contents);
+        
+        // Add generation config for better results
+        ObjectNode generationConfig = objectMapper.createObjectNode();
+        generationConfig.put("temperature", temperature);
+        generationConfig.put("topK", 40);
+        generationConfig.put("topP", 0.95);
+        generationConfig.put("maxOutputTokens", 2048);
+        requestBody.set("generationConfig", generationConfig);
+        return requestBody;
+    }
+
+    /**
+     * Returns the text of the first candidate's first part, or null if there is none.
+     */
+    private String extractText(JsonNode responseJson) {
+        if (responseJson.has("candidates") && responseJson.get("candidates").isArray() && 
+            responseJson.get("candidates").size() > 0) {
+            
+            JsonNode candidate = responseJson.get("candidates").get(0);
+            if (candidate.has("content") && candidate.get("content").has("parts") && 
+                candidate.get("content").get("parts").isArray() && 
+                candidate.get("content").get("parts").size() > 0) {
                 
-                logger.warn("Unexpected response format from Gemini API: {}", response);
+                return candidate.get("content").get("parts").get(0).get("text").asText();
             }
-            
-            logger.warn("No valid response from Gemini, returning fallback response");
-            return getFallbackResponse(userMessage);
-            
-        } catch (Exception e) {
-            logger.error("Error chatting with Gemini: {}", e.getMessage(), e);
-            logger.info("Falling back to default response due to Gemini error");
-            return getFallbackResponse(userMessage);
         }
+        return null;
     }
     
     private String createChatPrompt(String userMessage) {
@@ -0,0 +1,108 @@
+package com.jash.folder_structure_generator.service;
+
+import java.time.Instant;
+
+/**
+ * State of an asynchronous generation job. Updated by the worker thread and read by
+ * status requests, so every field that changes is volatile.
+ */
+public class GenerationJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final String owner;
+    private final String structureName;
+    private final Instant createdAt = Instant.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile int totalFiles;
+    private volatile int filesWritten;
+    private volatile int resultSize;
+    private volatile String error;
+    private volatile Instant finishedAt;
+
+    GenerationJob(String id, String owner, String structureName) {
+        this.id = id;
+        this.owner = owner;
+        this.structureName = structureName;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public String getStructureName() {
+        return structureName;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getTotalFiles() {
+        return totalFiles;
+    }
+
+    public int getFilesWritten() {
+        return filesWritten;
+    }
+
+    /**
+     * Progress in percent, based on the number of archive entries written.
+     */
+    public int getProgress() {
+        if (status == Status.COMPLETED) {
+            return 100;
+        }
+        int total = totalFiles;
+        return total == 0 ? 0 : (int) (filesWritten * 100L / total);
+    }
+
+    /**
+     * Size of the finished archive in bytes. The archive itself is held by
+     * {@link GenerationJobService#getResult}.
+     */
+    public int getResultSize() {
+        return resultSize;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    void started(int totalFiles) {
+        this.totalFiles = totalFiles;
+        this.status = Status.RUNNING;
+    }
+
+    void progressed(int filesWritten) {
+        this.filesWritten = filesWritten;
+    }
+
+    void completed(int resultSize) {
+        this.resultSize = resultSize;
+        this.finishedAt = Instant.now();
+        this.status = Status.COMPLETED;
+    }
+
+    void failed(String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.status = Status.FAILED;
+    }
+}
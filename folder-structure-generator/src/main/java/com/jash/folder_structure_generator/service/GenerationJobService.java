@@ -0,0 +1,138 @@
+package com.jash.folder_structure_generator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jash.folder_structure_generator.model.User;
+import com.jash.folder_structure_generator.util.ArchiveTree;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs structure generation in the background on the bounded generation executor.
+ *
+ * Jobs live in a local store and are dropped once they have been finished for longer
+ * than the configured TTL. Their finished archives are kept apart in a cache bounded by
+ * generation.jobs.max-result-bytes, so a burst of large archives cannot hold an unbounded
+ * amount of memory until the TTL; an archive evicted early has to be generated again.
+ */
+@Service
+public class GenerationJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenerationJobService.class);
+
+    private final FileStructureService fileStructureService;
+    private final ExecutorService generationExecutor;
+    private final Map<String, GenerationJob> jobs = new ConcurrentHashMap<>();
+    private final Cache<String, byte[]> results;
+
+    private final Duration ttl;
+
+    @Value("${generation.jobs.max-stored:1000}")
+    private int maxStoredJobs;
+
+    @Autowired
+    public GenerationJobService(FileStructureService fileStructureService,
+                                @Qualifier("generationExecutor") ExecutorService generationExecutor,
+                                @Value("${generation.jobs.ttl:PT15M}") Duration ttl,
+                                @Value("${generation.jobs.max-result-bytes:268435456}") long maxResultBytes,
+                                MeterRegistry meterRegistry) {
+        this.fileStructureService = fileStructureService;
+        this.generationExecutor = generationExecutor;
+        this.ttl = ttl;
+        this.results = Caffeine.newBuilder()
+                .maximumWeight(maxResultBytes)
+                .weigher((String id, byte[] zip) -> zip.length + id.length())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "generation.jobs.results");
+        Gauge.builder("generation.jobs.stored", jobs, Map::size)
+                .description("Generation jobs held in the local job store")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a generation job.
+     *
+     * @throws RejectedExecutionException when the job queue or the job store is full
+     */
+    public GenerationJob submit(String structureInput, String structureName, User user) {
+        if (jobs.size() >= maxStoredJobs) {
+            throw new RejectedExecutionException("Too many generation jobs in progress");
+        }
+        GenerationJob job = new GenerationJob(UUID.randomUUID().toString(), user.getUsername(), structureName);
+        jobs.put(job.getId(), job);
+        try {
+            generationExecutor.execute(() -> run(job, structureInput, user));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * Returns the job if it exists and belongs to the given user.
+     */
+    public Optional<GenerationJob> getJob(String id, String username) {
+        GenerationJob job = jobs.get(id);
+        if (job == null || !job.getOwner().equals(username)) {
+            return Optional.empty();
+        }
+        return Optional.of(job);
+    }
+
+    /**
+     * Returns the archive of a completed job, or empty once it has been evicted.
+     */
+    public Optional<byte[]> getResult(GenerationJob job) {
+        return Optional.ofNullable(results.getIfPresent(job.getId()));
+    }
+
+    @Scheduled(fixedDelayString = "${generation.jobs.cleanup-interval-ms:60000}")
+    public void evictExpiredJobs() {
+        Instant cutoff = Instant.now().minus(ttl);
+        int before = jobs.size();
+        jobs.values().removeIf(job -> {
+            if (job.getFinishedAt() == null || !job.getFinishedAt().isBefore(cutoff)) {
+                return false;
+            }
+            results.invalidate(job.getId());
+            return true;
+        });
+        int evicted = before - jobs.size();
+        if (evicted > 0) {
+            logger.debug("Evicted {} expired generation jobs", evicted);
+        }
+    }
+
+    private void run(GenerationJob job, String structureInput, User user) {
+        try {
+            ArchiveTree archive = fileStructureService.prepareArchive(structureInput, job.getStructureName(), user);
+            job.started(archive.getFileCount());
+            byte[] zip = fileStructureService.buildZip(archive, job::progressed);
+            results.put(job.getId(), zip);
+            job.completed(zip.length);
+        } catch (Exception e) {
+            logger.warn("Generation job {} failed: {}", job.getId(), e.getMessage());
+            job.failed(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.jash.folder_structure_generator.service;
+
+import com.jash.folder_structure_generator.util.StructureContentCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves the content of history rows written before the blob store was introduced into
+ * {@link StructureBlobStore}: each row gets its content hash and its inline content columns
+ * are cleared. Identical contents end up as a single blob.
+ *
+ * Runs once in the background after startup, in batches of
+ * history.content.migration.batch-size rows with a pause in between, so it does not
+ * compete with live traffic. Progress is logged and counted as history.content.migrated;
+ * history.content.migrated.bytes compares the content's raw size (form=raw) with what the
+ * new blobs take up in the store (form=stored).
+ * MySQL only returns the freed space to the file system after
+ * OPTIMIZE TABLE file_structure_history.
+ */
+@Service
+public class HistoryContentMigrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryContentMigrator.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StructureBlobStore blobStore;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final Counter migratedCounter;
+    private final Counter rawBytesCounter;
+    private final Counter storedBytesCounter;
+
+    @Autowired
+    public HistoryContentMigrator(JdbcTemplate jdbcTemplate,
+                                  StructureBlobStore blobStore,
+                                  @Value("${history.content.migration.enabled:true}") boolean enabled,
+                                  @Value("${history.content.migration.batch-size:500}") int batchSize,
+                                  @Value("${history.content.migration.pause-ms:200}") long pauseMillis,
+                                  MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blobStore = blobStore;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.migratedCounter = Counter.builder("history.content.migrated")
+                .description("History entries whose inline content was moved to the blob store")
+                .register(meterRegistry);
+        this.rawBytesCounter = Counter.builder("history.content.migrated.bytes")
+                .tag("form", "raw")
+                .baseUnit("bytes")
+                .description("Size of migrated history content before deduplication and compression")
+                .register(meterRegistry);
+        this.storedBytesCounter = Counter.builder("history.content.migrated.bytes")
+                .tag("form", "stored")
+                .baseUnit("bytes")
+                .description("Size of the blobs stored for migrated history content")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startMigration() {
+        if (!enabled) {
+            return;
+        }
+        Thread.ofPlatform()
+                .name("history-content-migration")
+                .daemon(true)
+                .start(this::migrateAll);
+    }
+
+    /**
+     * Migrates every remaining row and returns the totals.
+     */
+    MigrationResult migrateAll() {
+        long start = System.nanoTime();
+        MigrationResult total = new MigrationResult(0, 0, 0);
+        long lastId = 0;
+        try {
+            while (true) {
+                List<Row> rows = jdbcTemplate.query(
+                        "SELECT id, structure_content, structure_content_data FROM file_structure_history " +
+                                "WHERE id > ? AND content_hash IS NULL " +
+                                "AND (structure_content IS NOT NULL OR structure_content_data IS NOT NULL) " +
+                                "ORDER BY id LIMIT ?",
+                        (rs, rowNum) -> new Row(rs.getLong(1), rs.getString(2), rs.getBytes(3)),
+                        lastId, batchSize);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                total = total.plus(migrateBatch(rows));
+                lastId = rows.get(rows.size() - 1).id();
+                if (rows.size() < batchSize) {
+                    break;
+                }
+                Thread.sleep(pauseMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("History content migration interrupted after {} rows", total.rows());
+            return total;
+        } catch (RuntimeException e) {
+            logger.error("History content migration stopped after {} rows: {}", total.rows(), e.getMessage());
+            return total;
+        }
+
+        if (total.rows() > 0) {
+            Long blobs = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM structure_blob", Long.class);
+            logger.info("Moved {} history entries to the blob store in {} ms: {} bytes -> {} bytes ({}x smaller); " +
+                            "the store now holds {} distinct structures",
+                    total.rows(), (System.nanoTime() - start) / 1_000_000, total.rawBytes(), total.storedBytes(),
+                    String.format("%.1f", total.ratio()), blobs);
+        }
+        return total;
+    }
+
+    /**
+     * Stores the contents of the rows as blobs in one batch and points the rows at them.
+     * Returns the batch's raw and stored sizes.
+     */
+    private MigrationResult migrateBatch(List<Row> rows) {
+        List<Object[]> updates = new ArrayList<>(rows.size());
+        Map<String, String> contents = new HashMap<>();
+        long rawBytes = 0;
+        for (Row row : rows) {
+            String content = row.data() != null ? StructureContentCodec.decode(row.data()) : row.text();
+            String hash = blobStore.hash(content);
+            rawBytes += content.getBytes(StandardCharsets.UTF_8).length;
+            contents.putIfAbsent(hash, content);
+            updates.add(new Object[]{hash, row.id()});
+        }
+        long storedBytes = blobStore.putAll(contents);
+        // Guarded on the hash, so a row migrated in the meantime is left alone
+        jdbcTemplate.batchUpdate(
+                "UPDATE file_structure_history " +
+                        "SET content_hash = ?, structure_content = NULL, structure_content_data = NULL " +
+                        "WHERE id = ? AND content_hash IS NULL",
+                updates);
+        migratedCounter.increment(rows.size());
+        rawBytesCounter.increment(rawBytes);
+        storedBytesCounter.increment(storedBytes);
+        logger.debug("Moved content of history rows {} to {} to the blob store: {} -> {} bytes",
+                rows.get(0).id(), rows.get(rows.size() - 1).id(), rawBytes, storedBytes);
+        return new MigrationResult(rows.size(), rawBytes, storedBytes);
+    }
+
+    private record Row(long id, String text, byte[] data) {
+    }
+
+    record MigrationResult(long rows, long rawBytes, long storedBytes) {
+
+        MigrationResult plus(MigrationResult other) {
+            return new MigrationResult(rows + other.rows, rawBytes + other.rawBytes, storedBytes + other.storedBytes);
+        }
+
+        double ratio() {
+            return storedBytes == 0 ? 1.0 : (double) rawBytes / storedBytes;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.jash.folder_structure_generator.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind buffer for history entries. Entries are queued with their content and a
+ * background writer stores whatever has accumulated in one JDBC batch: first the contents
+ * not yet in the {@link StructureBlobStore}, then the history rows. Concurrent downloads
+ * share these round trips instead of paying their own inserts; the caller only hashes the
+ * content.
+ *
+ * history.write-behind.durability chooses when a write counts as done:
+ * <ul>
+ *   <li>FLUSH: {@link #await} blocks until the entry is inserted, so it is in the history
+ *       by the time the response is sent. Callers enqueue early and await late to overlap
+ *       the insert with their own work.</li>
+ *   <li>ASYNC: {@link #await} returns at once. An entry may show up in the history shortly
+ *       after the response, and entries still queued when the process is killed are lost.</li>
+ * </ul>
+ * When the queue (history.write-behind.queue-capacity) is full, or the writer is not
+ * running, the entry is inserted on the caller's thread instead, so nothing is dropped.
+ * On shutdown the writer stops after the web server and drains the queue first.
+ */
+@Service
+public class HistoryWriteBehind implements SmartLifecycle {
+
+    public enum Durability {
+        FLUSH, ASYNC
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryWriteBehind.class);
+
+    private static final String INSERT_SQL = "INSERT INTO file_structure_history " +
+            "(structure_name, content_hash, created_at, user_id) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StructureBlobStore blobStore;
+    private final Durability durability;
+    private final int batchSize;
+    private final Duration flushTimeout;
+    private final Duration shutdownTimeout;
+    private final BlockingQueue<PendingEntry> queue;
+    // Enqueuers hold the read lock, stop() takes the write lock, so nothing is queued after the final drain
+    private final ReadWriteLock runningLock = new ReentrantReadWriteLock();
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Counter overflowCounter;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public HistoryWriteBehind(JdbcTemplate jdbcTemplate,
+                              StructureBlobStore blobStore,
+                              @Value("${history.write-behind.durability:FLUSH}") String durability,
+                              @Value("${history.write-behind.queue-capacity:10000}") int queueCapacity,
+                              @Value("${history.write-behind.batch-size:200}") int batchSize,
+                              @Value("${history.write-behind.flush-timeout:PT5S}") Duration flushTimeout,
+                              @Value("${history.write-behind.shutdown-timeout:PT10S}") Duration shutdownTimeout,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blobStore = blobStore;
+        this.durability = Durability.valueOf(durability.trim().toUpperCase(Locale.ROOT));
+        this.batchSize = batchSize;
+        this.flushTimeout = flushTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("history.writes.queued", queue, BlockingQueue::size)
+                .description("History entries waiting to be written")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("history.writes.written")
+                .description("History entries inserted")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("history.writes.failed")
+                .description("History entries that could not be inserted")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("history.writes.overflow")
+                .description("History entries inserted on the caller's thread because the queue was full")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("history.writes.batch")
+                .description("History entries inserted per batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a history entry. The returned future completes once the entry is inserted.
+     */
+    public CompletableFuture<Void> enqueue(Long userId, String structureName, String content) {
+        PendingEntry entry = new PendingEntry(userId, structureName, blobStore.hash(content), content,
+                LocalDateTime.now(), new CompletableFuture<>());
+        runningLock.readLock().lock();
+        try {
+            if (running && queue.offer(entry)) {
+                return entry.written();
+            }
+        } finally {
+            runningLock.readLock().unlock();
+        }
+        if (running) {
+            overflowCounter.increment();
+        }
+        write(List.of(entry));
+        return entry.written();
+    }
+
+    /**
+     * Waits for a queued entry as the durability mode requires: until it is inserted with
+     * FLUSH, not at all with ASYNC.
+     */
+    public void await(CompletableFuture<Void> written) {
+        if (durability == Durability.ASYNC) {
+            return;
+        }
+        try {
+            written.get(flushTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out saving history", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while saving history", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to save history", e.getCause());
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform()
+                .name("history-writer")
+                .daemon(true)
+                .start(this::drain);
+    }
+
+    @Override
+    public void stop() {
+        runningLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            runningLock.writeLock().unlock();
+        }
+        try {
+            writer.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            logger.warn("History writer did not finish within {}; {} entries not written",
+                    shutdownTimeout, queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the web server (which stops in a higher phase), so requests finishing
+     * during graceful shutdown can still queue their entries.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        List<PendingEntry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEntry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                // No lingering: whatever piled up during the previous insert goes into this one
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                // Only stop() ends the writer, and it drains first
+            } catch (RuntimeException e) {
+                logger.error("History writer failed: {}", e.getMessage(), e);
+                batch.forEach(entry -> entry.written().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Stores the entries' contents and inserts the entries, each in one batch. If that fails,
+     * the entries are retried one by one so a single bad entry (say, of a user deleted
+     * meanwhile) does not fail the others.
+     */
+    void write(List<PendingEntry> entries) {
+        try {
+            Map<String, String> contents = new HashMap<>();
+            entries.forEach(entry -> contents.putIfAbsent(entry.contentHash(), entry.content()));
+            blobStore.putAll(contents);
+            jdbcTemplate.batchUpdate(INSERT_SQL, entries.stream().map(PendingEntry::toRow).toList());
+            batchSizes.record(entries.size());
+            writtenCounter.increment(entries.size());
+            entries.forEach(entry -> entry.written().complete(null));
+        } catch (DataAccessException e) {
+            if (entries.size() == 1) {
+                fail(entries.get(0), e);
+                return;
+            }
+            logger.warn("Batch of {} history entries failed, writing them one by one: {}",
+                    entries.size(), e.getMessage());
+            for (PendingEntry entry : entries) {
+                try {
+                    blobStore.putAll(Map.of(entry.contentHash(), entry.content()));
+                    jdbcTemplate.update(INSERT_SQL, entry.toRow());
+                    writtenCounter.increment();
+                    entry.written().complete(null);
+                } catch (DataAccessException rowFailure) {
+                    fail(entry, rowFailure);
+                }
+            }
+        }
+    }
+
+    private void fail(PendingEntry entry, DataAccessException e) {
+        failedCounter.increment();
+        logger.error("Could not save history entry '{}' of user {}: {}",
+                entry.structureName(), entry.userId(), e.getMessage());
+        entry.written().completeExceptionally(e);
+    }
+
+    record PendingEntry(Long userId, String structureName, String contentHash, String content,
+                        LocalDateTime createdAt, CompletableFuture<Void> written) {
+
+        Object[] toRow() {
+            return new Object[]{structureName, contentHash, Timestamp.valueOf(createdAt), userId};
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.jash.folder_structure_generator.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hashes and checks passwords on the bounded password hashing executor instead of the
+ * request thread. When the executor is saturated, or a hash does not finish within
+ * security.password.hashing.timeout, a {@link RejectedExecutionException} is thrown so the
+ * caller can shed the request with 503.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final ExecutorService executor;
+    private final int strength;
+    private final Duration timeout;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Qualifier("passwordHashingExecutor") ExecutorService executor,
+                                  @Value("${security.password.bcrypt-strength:10}") int strength,
+                                  @Value("${security.password.hashing.timeout:PT5S}") Duration timeout,
+                                  MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = executor;
+        this.strength = strength;
+        this.timeout = timeout;
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("Password hashing requests shed because the executor was saturated")
+                .register(meterRegistry);
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Whether a stored hash was made with a different cost than the configured one.
+     * Hashes that are not BCrypt are left alone.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    /**
+     * Hashes a password on the hashing executor without waiting, then hands the hash to the
+     * callback on that thread. Returns false when the executor is saturated and nothing was
+     * scheduled.
+     */
+    public boolean encodeInBackground(String rawPassword, Consumer<String> callback) {
+        try {
+            executor.execute(() -> callback.accept(passwordEncoder.encode(rawPassword)));
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            return false;
+        }
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw e;
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new RejectedExecutionException("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                // For example a password longer than BCrypt accepts
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
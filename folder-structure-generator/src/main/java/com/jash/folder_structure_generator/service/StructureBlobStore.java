@@ -0,0 +1,40 @@
+package com.jash.folder_structure_generator.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Content-addressed storage for structure content. Identical content is stored once and
+ * referred to by its hash, which is all a history entry keeps.
+ */
+public interface StructureBlobStore {
+
+    /**
+     * Returns the key the content is stored under.
+     */
+    String hash(String content);
+
+    /**
+     * Stores the content if it is not stored yet and returns its hash.
+     */
+    String put(String content);
+
+    /**
+     * Stores the contents, keyed by their {@link #hash}, that are not stored yet. Writers
+     * batching many entries use this to store their blobs in one round trip. Returns how
+     * many bytes the newly stored contents take up in the store.
+     */
+    long putAll(Map<String, String> contents);
+
+    /**
+     * Returns the content stored under the hash.
+     */
+    Optional<String> get(String hash);
+
+    /**
+     * Returns the content for all hashes that are stored, in one round trip for those not
+     * held in memory.
+     */
+    Map<String, String> getAll(Collection<String> hashes);
+}
@@ -0,0 +1,127 @@
+package com.jash.folder_structure_generator.service;
+
+import com.jash.folder_structure_generator.model.User;
+import com.jash.folder_structure_generator.util.ArchiveTree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Generates an archive while the structure is validated by Gemini, instead of validating
+ * first and generating afterwards.
+ *
+ * The original archive is built on the calling thread while the validation call is in
+ * flight, so the wait is max(validate, generate). When the corrected structure has the
+ * same layout as the original (same archive digest), the original archive is reused.
+ */
+@Service
+public class StructurePipelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StructurePipelineService.class);
+
+    private final FileStructureService fileStructureService;
+    private final GeminiService geminiService;
+    private final ExecutorService generationExecutor;
+
+    @Autowired
+    public StructurePipelineService(FileStructureService fileStructureService,
+                                    GeminiService geminiService,
+                                    @Qualifier("generationExecutor") ExecutorService generationExecutor) {
+        this.fileStructureService = fileStructureService;
+        this.geminiService = geminiService;
+        this.generationExecutor = generationExecutor;
+    }
+
+    /**
+     * Returns the archive of the structure as submitted. Validation keeps running in the
+     * background and pre-builds the corrected archive, so a follow-up request for the
+     * corrected variant is answered from the Gemini and archive caches.
+     */
+    public PipelineResult generateOriginal(String structureInput, String structureName, User user) throws IOException {
+        CompletableFuture<String> validation = geminiService.validateAndCorrectStructure(structureInput).toFuture();
+
+        ArchiveTree original = fileStructureService.prepareArchive(structureInput, structureName, user);
+        byte[] zip = fileStructureService.buildZip(original, null);
+
+        validation
+                .thenAcceptAsync(corrected -> prebuild(corrected, original.digest()), generationExecutor)
+                .exceptionally(e -> {
+                    logger.debug("Could not pre-build corrected archive: {}", e.getMessage());
+                    return null;
+                });
+        return new PipelineResult(zip, structureInput, false);
+    }
+
+    /**
+     * Returns the archive of the structure as corrected by Gemini. The original archive is
+     * built while validation runs and is reused when the correction does not change the
+     * layout, or when the corrected structure cannot be parsed.
+     */
+    public CompletableFuture<PipelineResult> generateCorrected(String structureInput, String structureName, User user) {
+        CompletableFuture<String> validation = geminiService.validateAndCorrectStructure(structureInput).toFuture();
+
+        // An idea or a broken structure may not parse; Gemini can still turn it into one
+        ArchiveTree original = tryBuildArchiveTree(structureInput);
+        byte[] originalZip = null;
+        if (original != null) {
+            try {
+                originalZip = fileStructureService.buildZip(original, null);
+            } catch (IOException e) {
+                original = null;
+            }
+        }
+
+        ArchiveTree originalTree = original;
+        byte[] originalArchive = originalZip;
+        return validation.thenApplyAsync(corrected -> {
+            ArchiveTree correctedTree = tryBuildArchiveTree(corrected);
+            try {
+                if (correctedTree == null || correctedTree.getFileCount() == 0
+                        || (originalTree != null && correctedTree.digest().equals(originalTree.digest()))) {
+                    if (originalTree == null) {
+                        throw new IllegalArgumentException("Structure could not be parsed or corrected");
+                    }
+                    fileStructureService.saveHistory(structureInput, structureName, user);
+                    return new PipelineResult(originalArchive, structureInput, false);
+                }
+                fileStructureService.saveHistory(corrected, structureName, user);
+                return new PipelineResult(fileStructureService.buildZip(correctedTree, null), corrected, true);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, generationExecutor);
+    }
+
+    private void prebuild(String corrected, String originalDigest) {
+        ArchiveTree correctedTree = tryBuildArchiveTree(corrected);
+        if (correctedTree == null || correctedTree.digest().equals(originalDigest)) {
+            return;
+        }
+        try {
+            fileStructureService.buildZip(correctedTree, null);
+        } catch (IOException e) {
+            logger.debug("Could not pre-build corrected archive: {}", e.getMessage());
+        }
+    }
+
+    private ArchiveTree tryBuildArchiveTree(String structureInput) {
+        try {
+            return fileStructureService.buildArchiveTree(structureInput);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The archive returned to the client, with the structure it was built from.
+     */
+    public record PipelineResult(byte[] zip, String structureContent, boolean corrected) {
+    }
+}
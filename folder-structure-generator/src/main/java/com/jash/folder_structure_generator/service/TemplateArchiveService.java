@@ -0,0 +1,113 @@
+package com.jash.folder_structure_generator.service;
+
+import com.jash.folder_structure_generator.dto.Template;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-rendered ZIP archives for the built-in templates.
+ *
+ * Each archive is generated once, either when the application is ready or on first
+ * request, and kept as an immutable buffer with a strong ETag over its bytes.
+ */
+@Service
+public class TemplateArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateArchiveService.class);
+
+    private final TemplateService templateService;
+    private final FileStructureService fileStructureService;
+    private final Map<String, TemplateArchive> archives = new ConcurrentHashMap<>();
+
+    @Value("${templates.archives.preload:true}")
+    private boolean preload;
+
+    @Autowired
+    public TemplateArchiveService(TemplateService templateService, FileStructureService fileStructureService) {
+        this.templateService = templateService;
+        this.fileStructureService = fileStructureService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadArchives() {
+        if (!preload) {
+            return;
+        }
+        long start = System.nanoTime();
+        long totalBytes = 0;
+        for (Template template : templateService.getTemplates()) {
+            totalBytes += getArchive(template.getId()).map(TemplateArchive::size).orElse(0);
+        }
+        logger.info("Pre-rendered {} template archives ({} bytes) in {} ms",
+                archives.size(), totalBytes, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public Optional<TemplateArchive> getArchive(String templateId) {
+        TemplateArchive archive = archives.get(templateId);
+        if (archive != null) {
+            return Optional.of(archive);
+        }
+        return templateService.getTemplate(templateId)
+                .map(template -> archives.computeIfAbsent(template.getId(), id -> render(template)));
+    }
+
+    private TemplateArchive render(Template template) {
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            fileStructureService.buildArchiveTree(template.getContent()).writeZip(baos);
+            return new TemplateArchive(baos.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to render template archive: " + template.getId(), e);
+        }
+    }
+
+    /**
+     * A rendered template archive. The bytes are only exposed as a read-only resource,
+     * so the buffer stays immutable for the lifetime of the application.
+     */
+    public static final class TemplateArchive {
+        private final byte[] zip;
+        private final String etag;
+
+        private TemplateArchive(byte[] zip) {
+            this.zip = zip;
+            this.etag = "\"" + sha256(zip) + "\"";
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public int size() {
+            return zip.length;
+        }
+
+        public Resource asResource() {
+            return new ByteArrayResource(zip, "template archive");
+        }
+
+        private static String sha256(byte[] data) {
+            try {
+                return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+    }
+}
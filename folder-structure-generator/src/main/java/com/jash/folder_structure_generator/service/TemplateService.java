@@ -1,16 +1,83 @@
 package com.jash.folder_structure_generator.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jash.folder_structure_generator.dto.Template;
+import com.jash.folder_structure_generator.dto.TemplateSummary;
+import com.jash.folder_structure_generator.util.PrecompressedJson;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
+/**
+ * The built-in template catalog.
+ *
+ * The catalog is built once into an immutable, id-indexed structure, together with
+ * precompressed JSON bodies for the full list and the summary list.
+ */
 @Service
 public class TemplateService {
 
+    private final List<Template> templates;
+    private final Map<String, Template> templatesById;
+    private final List<TemplateSummary> summaries;
+    private final PrecompressedJson templatesPayload;
+    private final PrecompressedJson summariesPayload;
+
+    @Autowired
+    public TemplateService(ObjectMapper objectMapper) {
+        this.templates = createTemplates();
+        Map<String, Template> byId = new LinkedHashMap<>();
+        for (Template template : templates) {
+            byId.put(template.getId(), template);
+        }
+        this.templatesById = Map.copyOf(byId);
+        this.summaries = templates.stream()
+                .map(TemplateSummary::of)
+                .collect(Collectors.toUnmodifiableList());
+        this.templatesPayload = PrecompressedJson.of(objectMapper, templates);
+        this.summariesPayload = PrecompressedJson.of(objectMapper, summaries);
+    }
+
     public List<Template> getTemplates() {
-        return Arrays.asList(
+        return templates;
+    }
+
+    public Optional<Template> getTemplate(String id) {
+        return Optional.ofNullable(templatesById.get(id));
+    }
+
+    public List<TemplateSummary> getSummaries() {
+        return summaries;
+    }
+
+    /**
+     * Summaries matching the given format ("json" or "text") and keyword. The keyword is
+     * matched case-insensitively against id, name and description. Null filters match everything.
+     */
+    public List<TemplateSummary> findSummaries(String format, String keyword) {
+        String needle = keyword == null ? null : keyword.trim().toLowerCase(Locale.ROOT);
+        return summaries.stream()
+                .filter(summary -> format == null || summary.getFormat().equalsIgnoreCase(format.trim()))
+                .filter(summary -> needle == null || needle.isEmpty() || summary.matches(needle))
+                .collect(Collectors.toList());
+    }
+
+    public PrecompressedJson getTemplatesPayload() {
+        return templatesPayload;
+    }
+
+    public PrecompressedJson getSummariesPayload() {
+        return summariesPayload;
+    }
+
+    private static List<Template> createTemplates() {
+        return List.of(
                 // --- Existing Templates ---
                 new Template(
                         "react-vite",
@@ -1,28 +1,49 @@
 package com.jash.folder_structure_generator.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.jash.folder_structure_generator.model.User;
 import com.jash.folder_structure_generator.repository.UserRepository;
+import com.jash.folder_structure_generator.security.AuthenticatedUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.context.annotation.Lazy;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Optional;
 
 @Service
 public class UserService implements UserDetailsService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    // Identities resolved for tokens that carry no user id claim
+    private final Cache<String, AuthenticatedUser> identities;
 
     @Autowired
-    public UserService(UserRepository userRepository, @Lazy PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, @Lazy PasswordHashingService passwordHashingService,
+                       @Value("${users.identity-cache.max-entries:10000}") long identityCacheMaxEntries,
+                       @Value("${users.identity-cache.ttl:PT10M}") Duration identityCacheTtl,
+                       MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
+        this.identities = Caffeine.newBuilder()
+                .maximumSize(identityCacheMaxEntries)
+                .expireAfterWrite(identityCacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, identities, "users.identity");
     }
 
     @Override
@@ -39,15 +60,34 @@ public class UserService implements UserDetailsService {
 
     public User createUser(User user) {
         if (user.getPassword() != null) {
-            user.setPassword(passwordEncoder.encode(user.getPassword()));
+            user.setPassword(passwordHashingService.encode(user.getPassword()));
         }
         return userRepository.save(user);
     }
 
+    /**
+     * Resolves the identity of a user by name, served from a bounded cache. Returns empty
+     * when no such user exists; misses are not cached.
+     *
+     * Users can be neither renamed nor deleted, so entries are never invalidated. Should
+     * that change, a cached identity stays valid until users.identity-cache.ttl, just as
+     * the id and email claims of an issued token stay valid until it expires.
+     */
+    public Optional<AuthenticatedUser> findIdentity(String username) {
+        AuthenticatedUser identity = identities.get(username, name -> userRepository.findByUsername(name)
+                .map(AuthenticatedUser::of)
+                .orElse(null));
+        return Optional.ofNullable(identity);
+    }
+
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
 
+    public Optional<User> findById(Long id) {
+        return userRepository.findById(id);
+    }
+
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
@@ -61,6 +101,26 @@ public class UserService implements UserDetailsService {
     }
 
     public boolean validatePassword(String rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+        return passwordHashingService.matches(rawPassword, encodedPassword);
+    }
+
+    /**
+     * After a successful login, rehashes the password in the background when its stored
+     * hash was made with a different BCrypt cost than the configured one. The update only
+     * applies if the stored hash has not changed in the meantime.
+     */
+    public void rehashPasswordIfNeeded(User user, String rawPassword) {
+        String storedHash = user.getPassword();
+        if (!passwordHashingService.needsRehash(storedHash)) {
+            return;
+        }
+        // Skipped when the hashing executor is busy; the next login tries again
+        passwordHashingService.encodeInBackground(rawPassword, newHash -> {
+            try {
+                userRepository.updatePassword(user.getId(), storedHash, newHash);
+            } catch (Exception e) {
+                logger.warn("Could not rehash password of user {}: {}", user.getUsername(), e.getMessage());
+            }
+        });
     }
 }
\ No newline at end of file
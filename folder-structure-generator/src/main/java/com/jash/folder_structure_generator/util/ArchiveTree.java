@@ -0,0 +1,194 @@
+package com.jash.folder_structure_generator.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * In-memory layout of a generated archive.
+ *
+ * Directories and files are kept in insertion order, and the ZIP is written
+ * straight from the tree, so generating a structure never touches the filesystem.
+ * Paths follow the same rules the old temp-directory implementation had:
+ * both '/' and '\' separate segments, existing files are never overwritten and
+ * only files end up as entries in the archive.
+ */
+public class ArchiveTree {
+
+    private final Directory root = new Directory();
+    private int fileCount;
+
+    public Directory getRoot() {
+        return root;
+    }
+
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    /**
+     * Resolves a (possibly nested) directory path below the given parent,
+     * creating any missing directories along the way.
+     */
+    public Directory directory(Directory parent, String relativePath) throws IOException {
+        Directory current = parent;
+        int start = 0;
+        int length = relativePath.length();
+        while (start < length) {
+            int end = nextSeparator(relativePath, start);
+            String segment = relativePath.substring(start, end);
+            start = end + 1;
+            if (isSkippedSegment(segment, relativePath)) {
+                continue;
+            }
+            current = current.childDirectory(segment, relativePath);
+        }
+        return current;
+    }
+
+    /**
+     * Adds a file below the given parent. Missing parent directories are created,
+     * and a file that already exists keeps its original content.
+     */
+    public void file(Directory parent, String relativePath, byte[] content) throws IOException {
+        int lastSeparator = Math.max(relativePath.lastIndexOf('/'), relativePath.lastIndexOf('\\'));
+        Directory directory = lastSeparator < 0 ? parent : directory(parent, relativePath.substring(0, lastSeparator));
+        String fileName = relativePath.substring(lastSeparator + 1);
+        if (isSkippedSegment(fileName, relativePath)) {
+            return;
+        }
+        if (directory.children.containsKey(fileName)) {
+            return;
+        }
+        directory.children.put(fileName, new File(content));
+        fileCount++;
+    }
+
+    /**
+     * Writes every file of the tree as a ZIP entry. The stream is finished but
+     * not closed, so callers can write straight to a response body.
+     */
+    public void writeZip(OutputStream out) throws IOException {
+        writeZip(out, null);
+    }
+
+    /**
+     * Same as {@link #writeZip(OutputStream)}, reporting the number of files written so far
+     * to the progress listener after every entry.
+     */
+    public void writeZip(OutputStream out, IntConsumer progress) throws IOException {
+        ZipOutputStream zos = new ZipOutputStream(out);
+        writeEntries(zos, root, "", progress, new int[1]);
+        zos.finish();
+        zos.flush();
+    }
+
+    /**
+     * SHA-256 over every entry path and content, in archive order. Two inputs that
+     * normalize to the same archive (text vs JSON, different indentation, duplicates)
+     * get the same digest.
+     */
+    public String digest() {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        digestEntries(md, root, "");
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    private void digestEntries(MessageDigest md, Directory directory, String prefix) {
+        for (Map.Entry<String, Node> child : directory.children.entrySet()) {
+            String entryName = prefix + child.getKey();
+            Node node = child.getValue();
+            if (node instanceof Directory) {
+                digestEntries(md, (Directory) node, entryName + "/");
+            } else {
+                byte[] content = ((File) node).content;
+                md.update(entryName.getBytes(StandardCharsets.UTF_8));
+                md.update((byte) 0);
+                md.update((byte) (content.length >>> 24));
+                md.update((byte) (content.length >>> 16));
+                md.update((byte) (content.length >>> 8));
+                md.update((byte) content.length);
+                md.update(content);
+            }
+        }
+    }
+
+    private void writeEntries(ZipOutputStream zos, Directory directory, String prefix,
+                              IntConsumer progress, int[] written) throws IOException {
+        for (Map.Entry<String, Node> child : directory.children.entrySet()) {
+            String entryName = prefix + child.getKey();
+            Node node = child.getValue();
+            if (node instanceof Directory) {
+                writeEntries(zos, (Directory) node, entryName + "/", progress, written);
+            } else {
+                zos.putNextEntry(new ZipEntry(entryName));
+                zos.write(((File) node).content);
+                zos.closeEntry();
+                if (progress != null) {
+                    progress.accept(++written[0]);
+                }
+            }
+        }
+    }
+
+    private static int nextSeparator(String path, int from) {
+        for (int i = from; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '/' || c == '\\') {
+                return i;
+            }
+        }
+        return path.length();
+    }
+
+    private static boolean isSkippedSegment(String segment, String path) throws IOException {
+        if (segment.equals("..")) {
+            throw new IOException("Parent directory references are not allowed: " + path);
+        }
+        return segment.isEmpty() || segment.equals(".");
+    }
+
+    private abstract static class Node {
+    }
+
+    private static final class File extends Node {
+        private final byte[] content;
+
+        private File(byte[] content) {
+            this.content = content;
+        }
+    }
+
+    public static final class Directory extends Node {
+        private final Map<String, Node> children = new LinkedHashMap<>();
+
+        private Directory() {
+        }
+
+        private Directory childDirectory(String name, String path) throws IOException {
+            Node existing = children.get(name);
+            if (existing == null) {
+                Directory directory = new Directory();
+                children.put(name, directory);
+                return directory;
+            }
+            if (existing instanceof Directory) {
+                return (Directory) existing;
+            }
+            throw new IOException("Cannot create directory, a file with the same name exists: " + path);
+        }
+    }
+}
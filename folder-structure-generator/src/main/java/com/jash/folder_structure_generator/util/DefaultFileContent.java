@@ -0,0 +1,51 @@
+package com.jash.folder_structure_generator.util;
+
+/**
+ * Starter content written into generated files, chosen by file extension.
+ */
+public final class DefaultFileContent {
+
+    private DefaultFileContent() {
+    }
+
+    public static String forFileName(String fileName) {
+        String extension = getFileExtension(fileName).toLowerCase();
+
+        switch (extension) {
+            case "java":
+                return "public class " + getClassName(fileName) + " {\n    // TODO: Implement\n}\n";
+            case "js":
+                return "// " + fileName + "\nconsole.log('Hello from " + fileName + "');\n";
+            case "py":
+                return "# " + fileName + "\nprint('Hello from " + fileName + "')\n";
+            case "html":
+                return "<!DOCTYPE html>\n<html>\n<head>\n    <title>" + fileName + "</title>\n</head>\n<body>\n    <h1>Hello World</h1>\n</body>\n</html>\n";
+            case "css":
+                return "/* " + fileName + " */\nbody {\n    font-family: Arial, sans-serif;\n}\n";
+            case "md":
+                return "# " + fileName.replace(".md", "") + "\n\nThis is a markdown file.\n";
+            case "txt":
+                return "This is a text file: " + fileName + "\n";
+            case "json":
+                return "{\n    \"name\": \"" + fileName + "\",\n    \"description\": \"Generated JSON file\"\n}\n";
+            case "xml":
+                return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<root>\n    <message>Hello from " + fileName + "</message>\n</root>\n";
+            default:
+                return "";
+        }
+    }
+
+    private static String getFileExtension(String fileName) {
+        int lastDot = fileName.lastIndexOf('.');
+        return lastDot > 0 ? fileName.substring(lastDot + 1) : "";
+    }
+
+    private static String getClassName(String fileName) {
+        int lastDot = fileName.lastIndexOf('.');
+        if (lastDot == -1) {
+            return fileName.substring(0, 1).toUpperCase() + fileName.substring(1);
+        }
+        String nameWithoutExtension = fileName.substring(0, lastDot);
+        return nameWithoutExtension.substring(0, 1).toUpperCase() + nameWithoutExtension.substring(1);
+    }
+}
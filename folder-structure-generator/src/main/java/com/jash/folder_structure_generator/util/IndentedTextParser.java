@@ -1,4 +1,155 @@
 package com.jash.folder_structure_generator.util;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parses the indented text structure format into a {@link StructureNode} tree.
+ *
+ * The input is scanned once by character index: no line splitting, trimming or
+ * regular expressions, so the only allocations are the node names and the nodes
+ * themselves. A tab counts as four spaces, and an item belongs to the closest
+ * preceding directory with a smaller indentation. Items indented below a file are
+ * attached to that file's directory, as they always have been.
+ *
+ * Instances are stateless and can be shared between threads.
+ */
 public class IndentedTextParser {
+
+    private static final int TAB_WIDTH = 4;
+
+    public List<StructureNode> parse(String input) throws StructureParseException {
+        List<StructureNode> roots = new ArrayList<>();
+        OpenDirectory[] open = new OpenDirectory[8];
+        int openCount = 0;
+
+        int length = input.length();
+        int lineNumber = 0;
+        int pos = 0;
+        while (pos < length) {
+            int lineEnd = input.indexOf('\n', pos);
+            if (lineEnd < 0) {
+                lineEnd = length;
+            }
+            int start = pos;
+            pos = lineEnd + 1;
+            lineNumber++;
+
+            // --- Indentation: spaces count one, tabs count four ---
+            int indent = 0;
+            for (; start < lineEnd; start++) {
+                char c = input.charAt(start);
+                if (c == ' ') {
+                    indent++;
+                } else if (c == '\t') {
+                    indent += TAB_WIDTH;
+                } else {
+                    break;
+                }
+            }
+
+            // --- Trim the remaining whitespace and control characters, like String.trim() ---
+            while (start < lineEnd && input.charAt(start) <= ' ') {
+                start++;
+            }
+            int end = lineEnd;
+            while (end > start && input.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            if (start == end) {
+                continue;
+            }
+            checkName(input, start, end, lineNumber);
+
+            // --- Close every directory that is not a parent of this line ---
+            while (openCount > 0 && open[openCount - 1].indent >= indent) {
+                open[--openCount].close();
+                open[openCount] = null;
+            }
+            List<StructureNode> siblings = openCount == 0 ? roots : open[openCount - 1].children;
+
+            String name = input.substring(start, end);
+            if (isFile(name)) {
+                siblings.add(new StructureNode.File(name, openCount, lineNumber));
+            } else {
+                if (openCount == open.length) {
+                    OpenDirectory[] grown = new OpenDirectory[open.length * 2];
+                    System.arraycopy(open, 0, grown, 0, openCount);
+                    open = grown;
+                }
+                open[openCount] = new OpenDirectory(name, indent, openCount, lineNumber, siblings);
+                openCount++;
+            }
+        }
+
+        while (openCount > 0) {
+            open[--openCount].close();
+        }
+        return Collections.unmodifiableList(roots);
+    }
+
+    /**
+     * A more robust check to determine if a given name is a file or a directory.
+     * - If it ends with a slash, it's a directory.
+     * - Otherwise, if it contains a dot, we assume it's a file.
+     * - Otherwise, it's a directory.
+     */
+    public static boolean isFile(String name) {
+        String trimmedName = name.trim();
+        if (trimmedName.endsWith("/") || trimmedName.endsWith("\\")) {
+            return false; // Definitely a directory
+        }
+        // A simple but effective heuristic: if it has a file extension, it's a file.
+        // This handles cases like "com.example.project" correctly being a directory.
+        return trimmedName.lastIndexOf('.') > trimmedName.lastIndexOf('/');
+    }
+
+    /**
+     * Rejects names that could not be written to an archive safely: control characters
+     * and ".." segments that would point outside of the generated structure.
+     */
+    static void checkName(CharSequence text, int start, int end, int line) throws StructureParseException {
+        int segmentStart = start;
+        for (int i = start; i <= end; i++) {
+            char c = i < end ? text.charAt(i) : '/';
+            if (c == '/' || c == '\\') {
+                if (i - segmentStart == 2 && text.charAt(segmentStart) == '.' && text.charAt(segmentStart + 1) == '.') {
+                    throw new StructureParseException(line, "parent directory references ('..') are not allowed");
+                }
+                segmentStart = i + 1;
+            } else if (c < ' ' && c != '\t') {
+                throw new StructureParseException(line, "names cannot contain control characters");
+            }
+        }
+    }
+
+    /**
+     * A directory whose children are still being read. Its slot in the parent's list
+     * is reserved up front so siblings keep their input order.
+     */
+    private static final class OpenDirectory {
+        private final String name;
+        private final int indent;
+        private final int depth;
+        private final int line;
+        private final List<StructureNode> parentChildren;
+        private final int slot;
+        private final List<StructureNode> children = new ArrayList<>();
+
+        private OpenDirectory(String name, int indent, int depth, int line, List<StructureNode> parentChildren) {
+            this.name = name;
+            this.indent = indent;
+            this.depth = depth;
+            this.line = line;
+            this.parentChildren = parentChildren;
+            this.slot = parentChildren.size();
+            parentChildren.add(null);
+        }
+
+        private void close() {
+            parentChildren.set(slot, new StructureNode.Directory(name, depth, line,
+                    Collections.unmodifiableList(children)));
+        }
+    }
 }
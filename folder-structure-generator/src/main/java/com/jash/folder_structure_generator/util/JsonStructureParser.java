@@ -0,0 +1,114 @@
+package com.jash.folder_structure_generator.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parses the JSON structure format into the same {@link StructureNode} tree as
+ * {@link IndentedTextParser}, reading tokens directly instead of building a JsonNode tree.
+ *
+ * - A null value, or a key that looks like a file name, is a file.
+ * - An array is a directory whose string items are files.
+ * - An object is a nested directory.
+ * - Any other value is ignored.
+ */
+public class JsonStructureParser {
+
+    private final JsonFactory jsonFactory;
+
+    public JsonStructureParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * Returns the parsed tree, or null when the input is not JSON and should be read as indented text.
+     * Valid JSON that is not an object produces an empty structure.
+     */
+    public List<StructureNode> parse(String input) throws IOException {
+        if (!mayBeJson(input)) {
+            return null;
+        }
+        try (JsonParser parser = jsonFactory.createParser(input)) {
+            JsonToken first = parser.nextToken();
+            if (first != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return List.of();
+            }
+            return readObject(parser, 0);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private List<StructureNode> readObject(JsonParser parser, int depth) throws IOException {
+        List<StructureNode> nodes = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            int line = parser.currentTokenLocation().getLineNr();
+            JsonToken value = parser.nextToken();
+
+            if (value == JsonToken.VALUE_NULL || IndentedTextParser.isFile(name)) {
+                parser.skipChildren();
+                nodes.add(file(name, depth, line));
+            } else if (value == JsonToken.START_ARRAY) {
+                checkName(name, line);
+                nodes.add(new StructureNode.Directory(name, depth, line, readArray(parser, depth + 1)));
+            } else if (value == JsonToken.START_OBJECT) {
+                checkName(name, line);
+                nodes.add(new StructureNode.Directory(name, depth, line, readObject(parser, depth + 1)));
+            }
+        }
+        return Collections.unmodifiableList(nodes);
+    }
+
+    private List<StructureNode> readArray(JsonParser parser, int depth) throws IOException {
+        List<StructureNode> nodes = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.VALUE_STRING) {
+                nodes.add(file(parser.getText(), depth, parser.currentTokenLocation().getLineNr()));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return Collections.unmodifiableList(nodes);
+    }
+
+    private StructureNode.File file(String name, int depth, int line) throws StructureParseException {
+        checkName(name, line);
+        return new StructureNode.File(stripTrailingSeparator(name), depth, line);
+    }
+
+    private void checkName(String name, int line) throws StructureParseException {
+        IndentedTextParser.checkName(name, 0, name.length(), line);
+    }
+
+    private String stripTrailingSeparator(String name) {
+        int last = name.length() - 1;
+        if (last >= 0 && (name.charAt(last) == '/' || name.charAt(last) == '\\')) {
+            return name.substring(0, last);
+        }
+        return name;
+    }
+
+    /**
+     * Cheap pre-check so plain indented text does not pay for a failed JSON parse.
+     */
+    private boolean mayBeJson(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                return c == '{' || c == '[' || c == '"' || c == '-' || (c >= '0' && c <= '9')
+                        || c == 't' || c == 'f' || c == 'n';
+            }
+        }
+        return true;
+    }
+}
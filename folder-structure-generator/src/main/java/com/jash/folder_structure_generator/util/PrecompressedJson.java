@@ -0,0 +1,72 @@
+package com.jash.folder_structure_generator.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A JSON body serialized once and kept both as-is and gzip-compressed, with a strong
+ * ETag for each representation.
+ */
+public final class PrecompressedJson {
+
+    private final byte[] identity;
+    private final byte[] gzip;
+    private final String etag;
+    private final String gzipEtag;
+
+    private PrecompressedJson(byte[] identity) {
+        this.identity = identity;
+        this.gzip = gzip(identity);
+        String hash = sha256(identity);
+        this.etag = "\"" + hash + "\"";
+        // Strong ETags must differ between content encodings of the same resource
+        this.gzipEtag = "\"" + hash + "-gzip\"";
+    }
+
+    public static PrecompressedJson of(ObjectMapper objectMapper, Object value) {
+        try {
+            return new PrecompressedJson(objectMapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize precompressed JSON", e);
+        }
+    }
+
+    public byte[] body(boolean gzipped) {
+        return gzipped ? gzip : identity;
+    }
+
+    public String etag(boolean gzipped) {
+        return gzipped ? gzipEtag : etag;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzos = new GZIPOutputStream(baos) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzos.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return baos.toByteArray();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
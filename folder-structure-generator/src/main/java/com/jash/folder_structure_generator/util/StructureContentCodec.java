@@ -0,0 +1,120 @@
+package com.jash.folder_structure_generator.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact storage format for structure content kept in history.
+ *
+ * The first byte names the format, so stored values stay readable when the format evolves:
+ * <ul>
+ *   <li>{@value #FORMAT_PLAIN}: UTF-8 text, used when compression would not save anything</li>
+ *   <li>{@value #FORMAT_DEFLATE_V1}: zlib deflate with a preset dictionary of names and
+ *       fragments that recur in generated structures (taken from the built-in templates),
+ *       which matters most for short inputs where plain deflate has little to refer back to</li>
+ * </ul>
+ * The v1 dictionary must never change once values are stored with it; a new dictionary
+ * gets a new format byte.
+ */
+public final class StructureContentCodec {
+
+    static final byte FORMAT_PLAIN = 0;
+    static final byte FORMAT_DEFLATE_V1 = 1;
+
+    // Deflate refers back to the end of the dictionary most cheaply, so the most common
+    // fragments come last
+    private static final byte[] DICTIONARY_V1 = String.join("",
+            "Dockerfile\ndocker-compose.yml\n.env.example\nMakefile\nLICENSE\nCHANGELOG.md\n",
+            "requirements.txt\nsetup.py\n__init__.py\nmain.py\nviews.py\nmodels.py\nurls.py\ntests/\n",
+            "pom.xml\nbuild.gradle\napplication.properties\nApplication.java\nController.java\nService.java\n",
+            "Repository.java\nsrc/main/java/\nsrc/test/java/\nresources/\ncontroller/\nservice/\nmodel/\n",
+            "tsconfig.json\nvite.config.js\nindex.html\nApp.jsx\nmain.jsx\nindex.css\nApp.css\nindex.ts\n",
+            "components/\npages/\nhooks/\nutils/\nservices/\nassets/\nstyles/\npublic/\nroutes/\nconfig/\n",
+            "\": null,\n    \"", "\": {\n    \"", "\": [],\n    \"", "\": null\n  },\n  \"",
+            "\n      ", "\n        ", "\n          ", "\n            ",
+            "README.md\n.gitignore\npackage.json\nindex.js\napp.js\nserver.js\n",
+            "src/\n  ", "test/\n  ", "docs/\n  ", "\n    ", "\n  ").getBytes(StandardCharsets.UTF_8);
+
+    private static final int MIN_COMPRESSED_LENGTH = 32;
+
+    private StructureContentCodec() {
+    }
+
+    public static byte[] encode(String content) {
+        if (content == null) {
+            return null;
+        }
+        byte[] plain = content.getBytes(StandardCharsets.UTF_8);
+        if (plain.length >= MIN_COMPRESSED_LENGTH) {
+            byte[] compressed = deflate(plain);
+            if (compressed.length < plain.length) {
+                return compressed;
+            }
+        }
+        byte[] stored = new byte[plain.length + 1];
+        stored[0] = FORMAT_PLAIN;
+        System.arraycopy(plain, 0, stored, 1, plain.length);
+        return stored;
+    }
+
+    public static String decode(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored.length == 0) {
+            throw new IllegalArgumentException("Stored structure content is empty");
+        }
+        return switch (stored[0]) {
+            case FORMAT_PLAIN -> new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8);
+            case FORMAT_DEFLATE_V1 -> new String(inflate(stored), StandardCharsets.UTF_8);
+            default -> throw new IllegalArgumentException("Unknown structure content format: " + stored[0]);
+        };
+    }
+
+    private static byte[] deflate(byte[] plain) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setDictionary(DICTIONARY_V1);
+            deflater.setInput(plain);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(plain.length / 3 + 16);
+            out.write(FORMAT_DEFLATE_V1);
+            byte[] buffer = new byte[Math.max(256, Math.min(plain.length, 8192))];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] stored) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored, 1, stored.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(stored.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0) {
+                    if (inflater.needsDictionary()) {
+                        inflater.setDictionary(DICTIONARY_V1);
+                    } else if (inflater.needsInput()) {
+                        throw new IllegalArgumentException("Stored structure content is truncated");
+                    }
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Stored structure content is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
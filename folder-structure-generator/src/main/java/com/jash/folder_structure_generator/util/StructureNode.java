@@ -0,0 +1,24 @@
+package com.jash.folder_structure_generator.util;
+
+import java.util.List;
+
+/**
+ * Immutable parse tree shared by the indented text and JSON structure formats.
+ *
+ * Depth is the nesting level in the tree (0 for top-level items) and line is the
+ * 1-based line of the input the node was read from.
+ */
+public sealed interface StructureNode permits StructureNode.Directory, StructureNode.File {
+
+    String name();
+
+    int depth();
+
+    int line();
+
+    record Directory(String name, int depth, int line, List<StructureNode> children) implements StructureNode {
+    }
+
+    record File(String name, int depth, int line) implements StructureNode {
+    }
+}
@@ -0,0 +1,20 @@
+package com.jash.folder_structure_generator.util;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a structure cannot be turned into an archive, pointing at the offending input line.
+ */
+public class StructureParseException extends IOException {
+
+    private final int line;
+
+    public StructureParseException(int line, String message) {
+        super("Line " + line + ": " + message);
+        this.line = line;
+    }
+
+    public int getLine() {
+        return line;
+    }
+}
@@ -0,0 +1,23 @@
+-- Schema as previously created by Hibernate (spring.jpa.hibernate.ddl-auto=update).
+-- Existing databases are baselined at this version and skip it (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE file_structure_history (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    structure_name VARCHAR(1000) NOT NULL,
+    structure_content TEXT NOT NULL,
+    created_at DATETIME(6),
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_history_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
@@ -0,0 +1,3 @@
+-- Serves the keyset-paginated history listing: rows of one user in (created_at, id) order.
+-- InnoDB secondary indexes carry the primary key, so the (created_at, id) tie-break is covered too.
+CREATE INDEX idx_history_user_created ON file_structure_history (user_id, created_at);
@@ -0,0 +1,4 @@
+-- History content is stored compressed (StructureContentCodec) in structure_content_data.
+-- Existing rows keep their text until HistoryContentMigrator converts them in batches.
+ALTER TABLE file_structure_history ADD COLUMN structure_content_data MEDIUMBLOB NULL;
+ALTER TABLE file_structure_history MODIFY structure_content TEXT NULL;
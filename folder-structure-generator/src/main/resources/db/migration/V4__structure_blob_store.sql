@@ -0,0 +1,12 @@
+-- Structure content is stored once per distinct value in structure_blob, keyed by the
+-- SHA-256 of its UTF-8 bytes, and history rows only keep the hash.
+-- Existing rows keep their inline content until HistoryContentMigrator moves it.
+CREATE TABLE structure_blob (
+    hash VARCHAR(64) NOT NULL,
+    content MEDIUMBLOB NOT NULL,
+    content_length INT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (hash)
+);
+
+ALTER TABLE file_structure_history ADD COLUMN content_hash VARCHAR(64) NULL;
@@ -0,0 +1,19 @@
+-- Queue of account emails delivered by EmailOutboxDispatcher.
+-- Databases that ran the outbox under ddl-auto=update already have the table (and its index),
+-- so it is only created when missing.
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    type VARCHAR(32) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    payload VARCHAR(1000),
+    occurrences INT NOT NULL,
+    attempts INT NOT NULL,
+    next_attempt_at DATETIME(6) NOT NULL,
+    last_error VARCHAR(1000),
+    created_at DATETIME(6),
+    sent_at DATETIME(6),
+    PRIMARY KEY (id),
+    INDEX idx_email_outbox_due (status, next_attempt_at)
+);
@@ -0,0 +1,73 @@
+package com.jash.folder_structure_generator.benchmark;
+
+import com.jash.folder_structure_generator.service.ArchiveCacheService;
+import com.jash.folder_structure_generator.service.FileStructureService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the in-memory archive engine with the old temp-directory one.
+ *
+ * Run with: mvn -Pbenchmark verify -DskipTests -Djmh.include=ArchiveGenerationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArchiveGenerationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int nodes;
+
+    @Param({"text", "json"})
+    public String format;
+
+    private String structure;
+    private FileStructureService service;
+    private FileStructureService cachedService;
+    private LegacyTempDirectoryGenerator legacy;
+
+    @Setup
+    public void setUp() {
+        structure = BenchmarkStructures.of(format, nodes);
+        // History is not recorded by buildZip, so no repository is needed.
+        service = new FileStructureService(null, null, null,
+                new ArchiveCacheService(false, 0, 0, new SimpleMeterRegistry()));
+        cachedService = new FileStructureService(null, null, null,
+                new ArchiveCacheService(true, 256L << 20, 64 << 20, new SimpleMeterRegistry()));
+        legacy = new LegacyTempDirectoryGenerator();
+    }
+
+    @Benchmark
+    public byte[] inMemory() throws IOException {
+        return service.buildZip(structure);
+    }
+
+    /**
+     * Repeat generation of the same structure, answered by the archive cache after the first call.
+     */
+    @Benchmark
+    public byte[] cachedRepeat() throws IOException {
+        return cachedService.buildZip(structure);
+    }
+
+    @Benchmark
+    public byte[] tempDirectory() throws IOException {
+        return legacy.generate(structure);
+    }
+}
@@ -0,0 +1,143 @@
+package com.jash.folder_structure_generator.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic structure inputs for the benchmarks.
+ *
+ * Three shapes are available:
+ * <ul>
+ *   <li>balanced: modules holding a few packages of eight files each, which is roughly
+ *       the shape of the templates users generate most</li>
+ *   <li>wide: a single directory with every other node as a file in it</li>
+ *   <li>deep: chains of directories nested {@value #DEEP_LEVELS} levels deep with one
+ *       file per level</li>
+ * </ul>
+ */
+final class BenchmarkStructures {
+
+    static final int DEEP_LEVELS = 32;
+
+    private static final String[] EXTENSIONS = {"java", "js", "md", "json", "txt", "css", "py", "yml"};
+
+    private BenchmarkStructures() {
+    }
+
+    static String indentedText(int nodes) {
+        return indentedText("balanced", nodes);
+    }
+
+    static String json(int nodes) {
+        return json("balanced", nodes);
+    }
+
+    static String of(String format, int nodes) {
+        return of(format, "balanced", nodes);
+    }
+
+    static String of(String format, String shape, int nodes) {
+        return "json".equals(format) ? json(shape, nodes) : indentedText(shape, nodes);
+    }
+
+    static String indentedText(String shape, int nodes) {
+        StringBuilder sb = new StringBuilder(nodes * 24);
+        for (Entry entry : entries(shape, nodes)) {
+            sb.append("  ".repeat(entry.depth)).append(entry.name);
+            if (entry.directory) {
+                sb.append('/');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    static String json(String shape, int nodes) {
+        StringBuilder sb = new StringBuilder(nodes * 32);
+        sb.append('{');
+        int depth = 0;
+        boolean first = true;
+        for (Entry entry : entries(shape, nodes)) {
+            while (depth > entry.depth) {
+                depth--;
+                sb.append('\n').append("  ".repeat(depth + 1)).append('}');
+                first = false;
+            }
+            if (!first) {
+                sb.append(',');
+            }
+            sb.append('\n').append("  ".repeat(entry.depth + 1)).append('"').append(entry.name).append("\": ");
+            if (entry.directory) {
+                sb.append('{');
+                depth++;
+                first = true;
+            } else {
+                sb.append("null");
+                first = false;
+            }
+        }
+        while (depth > 0) {
+            depth--;
+            sb.append('\n').append("  ".repeat(depth + 1)).append('}');
+        }
+        sb.append("\n}");
+        return sb.toString();
+    }
+
+    /**
+     * File names with a mix of known and unknown extensions, as found in real structures.
+     */
+    static String[] fileNames(int count) {
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = switch (i % 10) {
+                case 8 -> "Dockerfile";
+                case 9 -> "module" + i;
+                default -> fileName(i);
+            };
+        }
+        return names;
+    }
+
+    private static List<Entry> entries(String shape, int nodes) {
+        List<Entry> entries = new ArrayList<>(nodes);
+        switch (shape) {
+            case "wide" -> {
+                entries.add(new Entry(0, "flat", true));
+                for (int file = 0; entries.size() < nodes; file++) {
+                    entries.add(new Entry(1, fileName(file), false));
+                }
+            }
+            case "deep" -> {
+                for (int chain = 0; entries.size() < nodes; chain++) {
+                    for (int level = 0; level < DEEP_LEVELS && entries.size() < nodes; level++) {
+                        entries.add(new Entry(level, (level == 0 ? "chain" + chain : "level" + level), true));
+                        if (entries.size() < nodes) {
+                            entries.add(new Entry(level + 1, fileName(level), false));
+                        }
+                    }
+                }
+            }
+            case "balanced" -> {
+                for (int module = 0; entries.size() < nodes; module++) {
+                    entries.add(new Entry(0, "module" + module, true));
+                    for (int pkg = 0; pkg < 3 && entries.size() < nodes; pkg++) {
+                        entries.add(new Entry(1, "pkg" + pkg, true));
+                        for (int file = 0; file < EXTENSIONS.length && entries.size() < nodes; file++) {
+                            entries.add(new Entry(2, fileName(file), false));
+                        }
+                    }
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown shape: " + shape);
+        }
+        return entries;
+    }
+
+    private static String fileName(int index) {
+        return "File" + index + "." + EXTENSIONS[index % EXTENSIONS.length];
+    }
+
+    private record Entry(int depth, String name, boolean directory) {
+    }
+}
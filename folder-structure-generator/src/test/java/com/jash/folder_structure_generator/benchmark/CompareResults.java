@@ -0,0 +1,72 @@
+package com.jash.folder_structure_generator.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files, for example the results of two commits, and
+ * reports every benchmark that got slower by more than the threshold.
+ *
+ * Usage: CompareResults baseline.json current.json [threshold-percent, default 10].
+ * Exits with status 1 when a regression is found, so it can gate a build.
+ */
+public final class CompareResults {
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults baseline.json current.json [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            double old = before.at("/primaryMetric/score").asDouble();
+            double now = after.at("/primaryMetric/score").asDouble();
+            double change = old == 0 ? 0 : (now - old) / old * 100;
+            // Throughput is better when higher, every other mode when lower
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            double slowdown = higherIsBetter ? -change : change;
+            boolean regression = slowdown > threshold;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %s%n", entry.getKey(), old, now, change,
+                    regression ? "REGRESSION" : "");
+        }
+        System.out.printf("%n%d regression(s) above %.1f%%%n", regressions, threshold);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            Map<String, String> params = new TreeMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = result.path("params").fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> param = it.next();
+                params.put(param.getKey(), param.getValue().asText());
+            }
+            String name = result.path("benchmark").asText().replace("com.jash.folder_structure_generator.benchmark.", "");
+            results.put(name + (params.isEmpty() ? "" : " " + params), result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,56 @@
+package com.jash.folder_structure_generator.benchmark;
+
+import com.jash.folder_structure_generator.util.DefaultFileContent;
+import com.jash.folder_structure_generator.util.IndentedTextParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-name work done for every node: deciding whether a name is a file, and choosing
+ * the default content for a file. Scores are per name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileNameBenchmark {
+
+    private static final int NAMES = 1000;
+
+    private String[] names;
+
+    @Setup
+    public void setUp() {
+        names = BenchmarkStructures.fileNames(NAMES);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NAMES)
+    public void isFile(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(IndentedTextParser.isFile(name));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NAMES)
+    public void defaultFileContent(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(DefaultFileContent.forFileName(name));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.jash.folder_structure_generator.benchmark;
+
+import com.jash.folder_structure_generator.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token handling in JwtUtil, measured on the path the authentication filter takes for
+ * every request carrying a token:
+ * <ul>
+ *   <li>{@link #authenticateRequestLegacy}: the former three parses with a new key and
+ *       parser each (see {@link LegacyJwtVerification})</li>
+ *   <li>{@link #authenticateRequestUncached}: one parse with the shared parser</li>
+ *   <li>{@link #authenticateRequest}: the verified-token cache hit, which is what a
+ *       client reusing its token sees after the first request</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    // Secrets shorter than 32 bytes take the padding path in JwtUtil
+    @Param({"short-secret", "a-production-length-secret-of-at-least-thirty-two-bytes"})
+    public String secret;
+
+    private JwtUtil jwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private LegacyJwtVerification legacy;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(secret, 86_400_000L, true, 10_000, new SimpleMeterRegistry());
+        uncachedJwtUtil = new JwtUtil(secret, 86_400_000L, false, 0, new SimpleMeterRegistry());
+        legacy = new LegacyJwtVerification(secret);
+        token = jwtUtil.generateToken("benchmark-user");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("benchmark-user");
+    }
+
+    @Benchmark
+    public String authenticateRequestLegacy() {
+        return legacy.authenticate(token);
+    }
+
+    @Benchmark
+    public Claims authenticateRequestUncached() {
+        return uncachedJwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public Claims authenticateRequest() {
+        return jwtUtil.verify(token);
+    }
+}
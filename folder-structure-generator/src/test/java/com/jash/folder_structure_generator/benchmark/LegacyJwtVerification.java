@@ -0,0 +1,80 @@
+package com.jash.folder_structure_generator.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+
+/**
+ * Copy of the token checks the authentication filter made before verification was
+ * reduced to a single cached parse: three parses per request, each building a new
+ * signing key and parser. Kept only as the baseline for {@link JwtBenchmark}.
+ */
+final class LegacyJwtVerification {
+
+    private final String secret;
+
+    LegacyJwtVerification(String secret) {
+        this.secret = secret;
+    }
+
+    /**
+     * Returns the username when the token is valid, as the filter used to decide it.
+     */
+    String authenticate(String token) {
+        String username = getUsernameFromToken(token);
+        if (username != null && validateToken(token) && !isTokenExpired(token)) {
+            return username;
+        }
+        return null;
+    }
+
+    private Key getSigningKey() {
+        byte[] keyBytes;
+        if (secret.getBytes(StandardCharsets.UTF_8).length < 32) {
+            String paddedSecret = secret + "0123456789012345678901234567890123456789";
+            keyBytes = paddedSecret.substring(0, 32).getBytes(StandardCharsets.UTF_8);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        return Keys.hmacShaKeyFor(keyBytes);
+    }
+
+    private Claims parse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(getSigningKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private String getUsernameFromToken(String token) {
+        try {
+            return parse(token).getSubject();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private boolean validateToken(String token) {
+        try {
+            parse(token);
+            return true;
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private boolean isTokenExpired(String token) {
+        try {
+            Date expiration = parse(token).getExpiration();
+            return expiration != null && expiration.before(new Date());
+        } catch (Exception e) {
+            return true;
+        }
+    }
+}
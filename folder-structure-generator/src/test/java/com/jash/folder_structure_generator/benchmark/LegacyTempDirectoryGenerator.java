@@ -0,0 +1,151 @@
+package com.jash.folder_structure_generator.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jash.folder_structure_generator.util.DefaultFileContent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * The previous generation engine, which materialized the structure in a temp
+ * directory before zipping it. Kept only as the baseline for the benchmarks.
+ */
+final class LegacyTempDirectoryGenerator {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    byte[] generate(String structureInput) throws IOException {
+        Path tempDir = Files.createTempDirectory("file-structure-");
+        try {
+            if (isJsonFormat(structureInput)) {
+                processJsonNode(objectMapper.readTree(structureInput), tempDir);
+            } else {
+                createStructureFromText(structureInput, tempDir);
+            }
+            return createZipFromDirectory(tempDir);
+        } finally {
+            deleteDirectory(tempDir);
+        }
+    }
+
+    private boolean isJsonFormat(String input) {
+        try {
+            objectMapper.readTree(input);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void processJsonNode(JsonNode node, Path currentDir) throws IOException {
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String name = field.getKey();
+            JsonNode value = field.getValue();
+            Path itemPath = currentDir.resolve(name.replaceAll("[/\\\\]$", ""));
+
+            if (value.isNull() || isFile(name)) {
+                Files.createDirectories(itemPath.getParent());
+                writeFile(itemPath, name);
+            } else if (value.isArray()) {
+                Files.createDirectories(itemPath);
+                for (JsonNode arrayItem : value) {
+                    if (arrayItem.isTextual()) {
+                        writeFile(itemPath.resolve(arrayItem.asText()), arrayItem.asText());
+                    }
+                }
+            } else if (value.isObject()) {
+                Files.createDirectories(itemPath);
+                processJsonNode(value, itemPath);
+            }
+        }
+    }
+
+    private void createStructureFromText(String textInput, Path baseDir) throws IOException {
+        java.util.Stack<Map.Entry<Integer, Path>> pathStack = new java.util.Stack<>();
+        pathStack.push(new AbstractMap.SimpleEntry<>(-1, baseDir));
+
+        for (String line : textInput.split("\n")) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            int indentLevel = 0;
+            for (char c : line.toCharArray()) {
+                if (c == ' ') {
+                    indentLevel++;
+                } else if (c == '\t') {
+                    indentLevel += 4;
+                } else {
+                    break;
+                }
+            }
+            String itemName = line.trim();
+            while (pathStack.peek().getKey() >= indentLevel) {
+                pathStack.pop();
+            }
+            Path parentDir = pathStack.peek().getValue();
+
+            if (isFile(itemName)) {
+                Path filePath = parentDir.resolve(itemName);
+                Files.createDirectories(filePath.getParent());
+                writeFile(filePath, itemName);
+            } else {
+                Path dirPath = parentDir.resolve(itemName.replaceAll("[/\\\\]$", ""));
+                Files.createDirectories(dirPath);
+                pathStack.push(new AbstractMap.SimpleEntry<>(indentLevel, dirPath));
+            }
+        }
+    }
+
+    private void writeFile(Path filePath, String fileName) throws IOException {
+        if (!Files.exists(filePath)) {
+            Files.createFile(filePath);
+            String content = DefaultFileContent.forFileName(fileName);
+            if (!content.isEmpty()) {
+                Files.write(filePath, content.getBytes());
+            }
+        }
+    }
+
+    private boolean isFile(String name) {
+        String trimmedName = name.trim();
+        if (trimmedName.endsWith("/") || trimmedName.endsWith("\\")) {
+            return false;
+        }
+        return trimmedName.lastIndexOf('.') > trimmedName.lastIndexOf('/');
+    }
+
+    private byte[] createZipFromDirectory(Path sourceDir) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(baos)) {
+            Files.walk(sourceDir)
+                    .filter(path -> !Files.isDirectory(path))
+                    .forEach(path -> {
+                        String entryName = sourceDir.relativize(path).toString().replace('\\', '/');
+                        try {
+                            zos.putNextEntry(new ZipEntry(entryName));
+                            Files.copy(path, zos);
+                            zos.closeEntry();
+                        } catch (IOException e) {
+                            throw new RuntimeException("Failed to add entry to zip: " + entryName, e);
+                        }
+                    });
+        }
+        return baos.toByteArray();
+    }
+
+    private void deleteDirectory(Path directory) throws IOException {
+        Files.walk(directory)
+                .sorted((a, b) -> b.compareTo(a))
+                .forEach(path -> path.toFile().delete());
+    }
+}
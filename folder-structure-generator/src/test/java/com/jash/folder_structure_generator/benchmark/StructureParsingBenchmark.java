@@ -0,0 +1,88 @@
+package com.jash.folder_structure_generator.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jash.folder_structure_generator.service.ArchiveCacheService;
+import com.jash.folder_structure_generator.service.FileStructureService;
+import com.jash.folder_structure_generator.util.ArchiveTree;
+import com.jash.folder_structure_generator.util.IndentedTextParser;
+import com.jash.folder_structure_generator.util.JsonStructureParser;
+import com.jash.folder_structure_generator.util.StructureNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Structure parsing: indented text, JSON (including the JSON detection that every text
+ * input goes through first), and building the archive layout from the parsed tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StructureParsingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int nodes;
+
+    @Param({"balanced", "wide", "deep"})
+    public String shape;
+
+    private String text;
+    private String json;
+    private IndentedTextParser textParser;
+    private JsonStructureParser jsonParser;
+    private FileStructureService service;
+
+    @Setup
+    public void setUp() {
+        text = BenchmarkStructures.indentedText(shape, nodes);
+        json = BenchmarkStructures.json(shape, nodes);
+        textParser = new IndentedTextParser();
+        jsonParser = new JsonStructureParser(new ObjectMapper().getFactory());
+        service = new FileStructureService(null, null, null,
+                new ArchiveCacheService(false, 0, 0, new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public List<StructureNode> parseText() throws IOException {
+        return textParser.parse(text);
+    }
+
+    @Benchmark
+    public List<StructureNode> parseJson() throws IOException {
+        return jsonParser.parse(json);
+    }
+
+    /**
+     * Rejecting indented text as JSON, which happens before every text parse.
+     */
+    @Benchmark
+    public List<StructureNode> detectJsonOnText() throws IOException {
+        return jsonParser.parse(text);
+    }
+
+    @Benchmark
+    public ArchiveTree buildArchiveTreeFromText() throws IOException {
+        return service.buildArchiveTree(text);
+    }
+
+    @Benchmark
+    public ArchiveTree buildArchiveTreeFromJson() throws IOException {
+        return service.buildArchiveTree(json);
+    }
+}
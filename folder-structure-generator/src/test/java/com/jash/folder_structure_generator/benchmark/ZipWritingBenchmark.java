@@ -0,0 +1,63 @@
+package com.jash.folder_structure_generator.benchmark;
+
+import com.jash.folder_structure_generator.service.ArchiveCacheService;
+import com.jash.folder_structure_generator.service.FileStructureService;
+import com.jash.folder_structure_generator.util.ArchiveTree;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a parsed archive layout as a ZIP, and computing the digest the archive cache
+ * is keyed on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ZipWritingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int nodes;
+
+    @Param({"balanced", "wide", "deep"})
+    public String shape;
+
+    private ArchiveTree tree;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setUp() throws IOException {
+        FileStructureService service = new FileStructureService(null, null, null,
+                new ArchiveCacheService(false, 0, 0, new SimpleMeterRegistry()));
+        tree = service.buildArchiveTree(BenchmarkStructures.indentedText(shape, nodes));
+        out = new ByteArrayOutputStream(1 << 20);
+    }
+
+    @Benchmark
+    public int writeZip() throws IOException {
+        out.reset();
+        tree.writeZip(out);
+        return out.size();
+    }
+
+    @Benchmark
+    public String digest() {
+        return tree.digest();
+    }
+}
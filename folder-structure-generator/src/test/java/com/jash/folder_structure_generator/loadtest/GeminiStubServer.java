@@ -0,0 +1,377 @@
+package com.jash.folder_structure_generator.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Gemini generateContent and streamGenerateContent endpoints.
+ *
+ * Answers with the same JSON (and SSE) shapes as Gemini after a configurable latency,
+ * fails a configurable share of calls, and streams answers chunk by chunk with a fixed
+ * pause in between. Validation prompts are answered with the submitted structure, so the
+ * pipeline's reuse path can be exercised; chat prompts get a canned answer chosen by
+ * keyword. Each request runs on its own virtual thread, so latency never limits
+ * concurrency on the stub side.
+ *
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath com.jash.folder_structure_generator.loadtest.GeminiStubServer \
+ *     --port=8089 --latency=lognormal:800,0.5 --error-rate=0.02 --chunk-delay-ms=40"
+ * </pre>
+ * and start the backend with
+ * {@code --gemini.api.key=stub --gemini.api.url=http://localhost:8089/v1beta/models/gemini-1.5-flash:generateContent
+ * --gemini.api.stream-url=http://localhost:8089/v1beta/models/gemini-1.5-flash:streamGenerateContent}.
+ *
+ * Options:
+ * <ul>
+ *   <li>{@code --latency=fixed:MS | uniform:MIN-MAX | normal:MEAN,STDDEV | lognormal:MEDIAN,SIGMA}</li>
+ *   <li>{@code --error-rate=0..1} and {@code --error-status=503}: injected failures</li>
+ *   <li>{@code --chunk-words=4} and {@code --chunk-delay-ms=50}: streaming pacing</li>
+ *   <li>{@code --responses=file.json}: canned chat answers, an object of keyword to text;
+ *       the "default" key is used when no keyword matches</li>
+ * </ul>
+ * {@code GET /stats} reports request, failure and stream counts.
+ */
+public class GeminiStubServer implements AutoCloseable {
+
+    private static final String DEFAULT_ANSWER = """
+            A good project structure separates source, tests and documentation:
+
+            src/
+              main/
+              test/
+            docs/
+            README.md
+            .gitignore
+
+            Keep related files together and name folders after what they contain.""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Config config;
+    private final HttpServer server;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong streams = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private GeminiStubServer(Config config) throws IOException {
+        this.config = config;
+        this.server = HttpServer.create(new InetSocketAddress(config.port), 0);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/stats", this::handleStats);
+        this.server.createContext("/", this::handleGenerate);
+    }
+
+    /**
+     * Starts a stub on the configured port (0 picks a free one).
+     */
+    public static GeminiStubServer start(Config config) throws IOException {
+        GeminiStubServer stub = new GeminiStubServer(config);
+        stub.server.start();
+        return stub;
+    }
+
+    public static void main(String[] args) throws Exception {
+        GeminiStubServer stub = start(Config.fromArgs(args));
+        System.out.printf("Gemini stub listening on %s%n", stub.baseUrl());
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+        Thread.currentThread().join();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * URL to use as gemini.api.url.
+     */
+    public String generateContentUrl() {
+        return baseUrl() + "/v1beta/models/gemini-stub:generateContent";
+    }
+
+    /**
+     * URL to use as gemini.api.stream-url.
+     */
+    public String streamGenerateContentUrl() {
+        return baseUrl() + "/v1beta/models/gemini-stub:streamGenerateContent";
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handleGenerate(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            boolean streaming = path.endsWith(":streamGenerateContent");
+            if (!"POST".equals(exchange.getRequestMethod())
+                    || !(streaming || path.endsWith(":generateContent"))) {
+                send(exchange, 404, "{\"error\":{\"code\":404,\"message\":\"Not found\"}}");
+                return;
+            }
+            requests.incrementAndGet();
+
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            String answer = answerFor(request.at("/contents/0/parts/0/text").asText(""));
+
+            sleep(config.latency.sampleMillis());
+            if (ThreadLocalRandom.current().nextDouble() < config.errorRate) {
+                failures.incrementAndGet();
+                send(exchange, config.errorStatus, "{\"error\":{\"code\":" + config.errorStatus
+                        + ",\"message\":\"Injected failure\",\"status\":\"UNAVAILABLE\"}}");
+                return;
+            }
+
+            if (streaming) {
+                streams.incrementAndGet();
+                stream(exchange, answer);
+            } else {
+                send(exchange, 200, objectMapper.writeValueAsString(candidate(answer, true)));
+            }
+        } catch (IOException e) {
+            // Client went away (for example a cancelled stream); nothing left to answer
+        }
+    }
+
+    private void stream(HttpExchange exchange, String answer) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+
+        List<String> chunks = chunk(answer, config.chunkWords);
+        for (Iterator<String> it = chunks.iterator(); it.hasNext(); ) {
+            String chunk = it.next();
+            String event = "data: " + objectMapper.writeValueAsString(candidate(chunk, !it.hasNext())) + "\r\n\r\n";
+            out.write(event.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            if (it.hasNext()) {
+                sleep(config.chunkDelayMillis);
+            }
+        }
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            ObjectNode stats = objectMapper.createObjectNode()
+                    .put("requests", requests.get())
+                    .put("streams", streams.get())
+                    .put("failures", failures.get());
+            send(exchange, 200, stats.toString());
+        }
+    }
+
+    private String answerFor(String prompt) {
+        // Validation prompts end with the submitted structure; echo it back unchanged
+        int input = prompt.lastIndexOf("Input:\n");
+        if (prompt.contains("file structure validator") && input >= 0) {
+            return prompt.substring(input + "Input:\n".length()).strip();
+        }
+        String lower = prompt.toLowerCase(Locale.ROOT);
+        for (Map.Entry<String, String> canned : config.responses.entrySet()) {
+            if (!"default".equals(canned.getKey()) && lower.contains(canned.getKey().toLowerCase(Locale.ROOT))) {
+                return canned.getValue();
+            }
+        }
+        return config.responses.getOrDefault("default", DEFAULT_ANSWER);
+    }
+
+    private ObjectNode candidate(String text, boolean last) {
+        ObjectNode response = objectMapper.createObjectNode();
+        ObjectNode candidate = response.putArray("candidates").addObject();
+        ObjectNode content = candidate.putObject("content");
+        content.putArray("parts").addObject().put("text", text);
+        content.put("role", "model");
+        if (last) {
+            candidate.put("finishReason", "STOP");
+        }
+        return response;
+    }
+
+    private static List<String> chunk(String text, int wordsPerChunk) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int words = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            current.append(c);
+            if (Character.isWhitespace(c) && (i + 1 == text.length() || !Character.isWhitespace(text.charAt(i + 1)))) {
+                if (++words == wordsPerChunk) {
+                    chunks.add(current.toString());
+                    current.setLength(0);
+                    words = 0;
+                }
+            }
+        }
+        if (current.length() > 0) {
+            chunks.add(current.toString());
+        }
+        return chunks;
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Response latency in milliseconds.
+     */
+    @FunctionalInterface
+    public interface Latency {
+
+        long sampleMillis();
+
+        static Latency fixed(long millis) {
+            return () -> millis;
+        }
+
+        /**
+         * Parses {@code fixed:MS}, {@code uniform:MIN-MAX}, {@code normal:MEAN,STDDEV} or
+         * {@code lognormal:MEDIAN,SIGMA}.
+         */
+        static Latency parse(String spec) {
+            String[] kind = spec.split(":", 2);
+            if (kind.length != 2) {
+                throw new IllegalArgumentException("Latency must look like kind:params, got " + spec);
+            }
+            String params = kind[1];
+            switch (kind[0]) {
+                case "fixed":
+                    return fixed(Long.parseLong(params));
+                case "uniform": {
+                    String[] range = params.split("-");
+                    long min = Long.parseLong(range[0]);
+                    long max = Long.parseLong(range[1]);
+                    return () -> ThreadLocalRandom.current().nextLong(min, max + 1);
+                }
+                case "normal": {
+                    String[] values = params.split(",");
+                    double mean = Double.parseDouble(values[0]);
+                    double stddev = Double.parseDouble(values[1]);
+                    return () -> Math.max(0, Math.round(mean + stddev * ThreadLocalRandom.current().nextGaussian()));
+                }
+                case "lognormal": {
+                    // Long-tailed, like real model latency: median in ms, sigma of the underlying normal
+                    String[] values = params.split(",");
+                    double mu = Math.log(Double.parseDouble(values[0]));
+                    double sigma = Double.parseDouble(values[1]);
+                    return () -> Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown latency distribution: " + kind[0]);
+            }
+        }
+    }
+
+    /**
+     * Stub settings; see the class documentation for the matching command-line options.
+     */
+    public static final class Config {
+        private int port = 8089;
+        private Latency latency = Latency.fixed(0);
+        private double errorRate;
+        private int errorStatus = 503;
+        private int chunkWords = 4;
+        private long chunkDelayMillis = 50;
+        private Map<String, String> responses = new LinkedHashMap<>();
+
+        public Config port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Config latency(Latency latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        public Config errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        public Config errorStatus(int errorStatus) {
+            this.errorStatus = errorStatus;
+            return this;
+        }
+
+        public Config chunkWords(int chunkWords) {
+            this.chunkWords = Math.max(1, chunkWords);
+            return this;
+        }
+
+        public Config chunkDelayMillis(long chunkDelayMillis) {
+            this.chunkDelayMillis = chunkDelayMillis;
+            return this;
+        }
+
+        public Config responses(Map<String, String> responses) {
+            this.responses = new LinkedHashMap<>(responses);
+            return this;
+        }
+
+        static Config fromArgs(String[] args) throws IOException {
+            Map<String, String> options = new HashMap<>();
+            for (String arg : args) {
+                if (arg.startsWith("--") && arg.contains("=")) {
+                    int separator = arg.indexOf('=');
+                    options.put(arg.substring(2, separator), arg.substring(separator + 1));
+                }
+            }
+
+            Config config = new Config()
+                    .port(Integer.parseInt(options.getOrDefault("port", "8089")))
+                    .latency(Latency.parse(options.getOrDefault("latency", "fixed:0")))
+                    .errorRate(Double.parseDouble(options.getOrDefault("error-rate", "0")))
+                    .errorStatus(Integer.parseInt(options.getOrDefault("error-status", "503")))
+                    .chunkWords(Integer.parseInt(options.getOrDefault("chunk-words", "4")))
+                    .chunkDelayMillis(Long.parseLong(options.getOrDefault("chunk-delay-ms", "50")));
+            if (options.containsKey("responses")) {
+                Map<String, String> responses = new LinkedHashMap<>();
+                JsonNode canned = new ObjectMapper().readTree(Files.readString(Path.of(options.get("responses"))));
+                canned.fields().forEachRemaining(field -> responses.put(field.getKey(), field.getValue().asText()));
+                config.responses(responses);
+            }
+            return config;
+        }
+    }
+}
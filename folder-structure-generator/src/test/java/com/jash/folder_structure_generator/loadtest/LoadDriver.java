@@ -0,0 +1,487 @@
+package com.jash.folder_structure_generator.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load driver for a running backend.
+ *
+ * Every virtual user repeatedly picks a scripted journey according to the traffic mix
+ * and runs it, pausing for a random think time between requests:
+ * <ul>
+ *   <li>newcomer: register, browse templates, download a template, generate, history</li>
+ *   <li>returning: login, history, generate, history</li>
+ *   <li>browser: template list, summaries, one template and its archive (anonymous)</li>
+ *   <li>assistant: login, AI chat, generate</li>
+ * </ul>
+ * The number of users is stepped up. Every step reports throughput and latency
+ * percentiles per endpoint, plus a latency histogram. Capacity is the largest step
+ * whose overall p99 stays under the SLO with less than 1% errors.
+ *
+ * Against an already running instance (for example to compare thread models, see the
+ * virtual-threads Maven profile):
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath com.jash.folder_structure_generator.loadtest.LoadDriver \
+ *     --base-url=http://localhost:8080 --users=50,100,200,400 --duration=30 --slo-ms=500"
+ * </pre>
+ * {@link LoadTest} starts a self-contained environment and runs this driver against it.
+ *
+ * Options: --base-url, --users (comma-separated steps), --duration (seconds per step),
+ * --slo-ms, --think-ms (mean think time), --mix (for example
+ * returning:50,browser:25,assistant:15,newcomer:10), --accounts (pre-registered users for
+ * the returning and assistant journeys), --password and --report (report file).
+ */
+public class LoadDriver {
+
+    enum Journey {
+        NEWCOMER, RETURNING, BROWSER, ASSISTANT
+    }
+
+    private static final String DEFAULT_MIX = "returning:50,browser:25,assistant:15,newcomer:10";
+
+    private static final String[] STRUCTURES = {
+            "load-test/\n  src/\n    main.js\n    util/\n      helpers.js\n  package.json\n  README.md\n",
+            "api/\n  src/\n    main/\n      java/\n        App.java\n    test/\n      java/\n        AppTest.java\n  pom.xml\n",
+            "{\"web\": {\"src\": {\"components\": [\"Button.jsx\", \"Card.jsx\"], \"App.jsx\": null}, \"index.html\": null}}",
+            "service/\n  app/\n    __init__.py\n    main.py\n  tests/\n    test_main.py\n  requirements.txt\n  Dockerfile\n",
+    };
+
+    private static final String[] CHAT_MESSAGES = {
+            "What is a good folder structure for a React project?",
+            "How should I organize a Spring Boot application?",
+            "Where do tests go in a Python project?",
+    };
+
+    private static final String[] TEMPLATE_IDS = {"react-vite", "express-js"};
+
+    // Bucket upper bounds in milliseconds; the last bucket is open-ended
+    private static final long[] BUCKETS_MS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client;
+    private final Options options;
+    private final AtomicLong newcomers = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private LoadDriver(Options options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean withinCapacity = run(Options.parse(args));
+        System.exit(withinCapacity ? 0 : 1);
+    }
+
+    /**
+     * Runs every step and writes the report. Returns whether at least one step met the SLO.
+     */
+    public static boolean run(Options options) throws Exception {
+        LoadDriver driver = new LoadDriver(options);
+        System.out.printf("Preparing %d accounts against %s%n", options.accounts, options.baseUrl);
+        List<String> accounts = driver.prepareAccounts(options.accounts);
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Load test against %s, mix %s, %d s per step, think time %d ms%n",
+                options.baseUrl, options.mix, options.duration.toSeconds(), options.thinkMillis));
+        int capacity = 0;
+        for (int users : options.steps) {
+            Map<String, Recorder> results = driver.runStep(users, accounts);
+            Recorder all = new Recorder();
+            results.values().forEach(all::merge);
+            appendStep(report, users, results, all, options.duration);
+            System.out.print(report.substring(report.lastIndexOf("\n== ") + 1));
+            if (all.percentileMillis(99) <= options.sloMillis && all.errorRate() < 0.01) {
+                capacity = users;
+            }
+        }
+        String summary = String.format("%nCapacity at p99 <= %d ms: %d concurrent users%n", options.sloMillis, capacity);
+        report.append(summary);
+        System.out.print(summary);
+
+        if (options.report != null) {
+            Files.createDirectories(options.report.toAbsolutePath().getParent());
+            Files.writeString(options.report, report);
+            System.out.printf("Report written to %s%n", options.report.toAbsolutePath());
+        }
+        return capacity > 0;
+    }
+
+    /**
+     * Registers (or logs in) the accounts used by returning users. Not measured.
+     */
+    private List<String> prepareAccounts(int count) throws IOException, InterruptedException {
+        List<String> usernames = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String username = "load-user-" + i;
+            HttpResponse<String> response = post("/api/auth/register", credentials(username), null);
+            if (response.statusCode() != 200) {
+                response = post("/api/auth/login", credentials(username), null);
+            }
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Could not prepare " + username + ": " + response.body());
+            }
+            usernames.add(username);
+        }
+        return usernames;
+    }
+
+    private Map<String, Recorder> runStep(int users, List<String> accounts) throws Exception {
+        long deadline = System.nanoTime() + options.duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Session>> futures = new ArrayList<>();
+            for (int i = 0; i < users; i++) {
+                futures.add(executor.submit(() -> {
+                    Session session = new Session();
+                    while (System.nanoTime() < deadline) {
+                        runJourney(pickJourney(), session, accounts, deadline);
+                    }
+                    return session;
+                }));
+            }
+            Map<String, Recorder> totals = new TreeMap<>();
+            for (Future<Session> future : futures) {
+                future.get().recorders.forEach((endpoint, recorder) ->
+                        totals.computeIfAbsent(endpoint, e -> new Recorder()).merge(recorder));
+            }
+            return totals;
+        }
+    }
+
+    private void runJourney(Journey journey, Session session, List<String> accounts, long deadline) {
+        if (accounts.isEmpty() && (journey == Journey.RETURNING || journey == Journey.ASSISTANT)) {
+            // Without prepared accounts everybody has to sign up first
+            journey = Journey.NEWCOMER;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String templateId = TEMPLATE_IDS[random.nextInt(TEMPLATE_IDS.length)];
+        List<Step> steps = switch (journey) {
+            case NEWCOMER -> {
+                String username = "new-" + runId + "-" + newcomers.incrementAndGet();
+                yield List.of(
+                        () -> session.login("register", post("/api/auth/register", credentials(username), null)),
+                        () -> session.record("templates", get("/api/templates/summary", null)),
+                        () -> session.record("template-zip", get("/api/templates/" + templateId + "/zip", null)),
+                        () -> session.record("generate", post("/api/generate-structure", generateBody(), session.token)),
+                        () -> session.record("history", get("/api/user/history/page", session.token)));
+            }
+            case RETURNING -> {
+                String username = accounts.get(random.nextInt(accounts.size()));
+                yield List.of(
+                        () -> session.login("login", post("/api/auth/login", credentials(username), null)),
+                        () -> session.record("history", get("/api/user/history/page", session.token)),
+                        () -> session.record("generate", post("/api/generate-structure", generateBody(), session.token)),
+                        () -> session.record("history", get("/api/user/history/page", session.token)));
+            }
+            case BROWSER -> List.of(
+                    () -> session.record("templates", get("/api/templates", null)),
+                    () -> session.record("templates", get("/api/templates/summary", null)),
+                    () -> session.record("templates", get("/api/templates/" + templateId, null)),
+                    () -> session.record("template-zip", get("/api/templates/" + templateId + "/zip", null)));
+            case ASSISTANT -> {
+                String username = accounts.get(random.nextInt(accounts.size()));
+                String message = CHAT_MESSAGES[random.nextInt(CHAT_MESSAGES.length)];
+                yield List.of(
+                        () -> session.login("login", post("/api/auth/login", credentials(username), null)),
+                        () -> session.record("chat", post("/api/gemini-chat", chatBody(message), session.token)),
+                        () -> session.record("generate", post("/api/generate-structure", generateBody(), session.token)));
+            }
+        };
+
+        for (Step step : steps) {
+            if (System.nanoTime() >= deadline) {
+                return;
+            }
+            long start = System.nanoTime();
+            boolean ok;
+            String endpoint;
+            try {
+                StepResult result = step.run();
+                endpoint = result.endpoint;
+                ok = result.ok;
+            } catch (Exception e) {
+                endpoint = "failed";
+                ok = false;
+            }
+            session.recorder(endpoint).record(System.nanoTime() - start, ok);
+            if (!ok) {
+                // A failed step (for example a rejected login) ends the journey
+                return;
+            }
+            think();
+        }
+    }
+
+    private Journey pickJourney() {
+        int total = options.mix.values().stream().mapToInt(Integer::intValue).sum();
+        int pick = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Journey, Integer> entry : options.mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        return Journey.RETURNING;
+    }
+
+    private void think() {
+        if (options.thinkMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(options.thinkMillis * 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String credentials(String username) {
+        return objectMapper.createObjectNode()
+                .put("username", username)
+                .put("email", username + "@example.com")
+                .put("password", options.password)
+                .toString();
+    }
+
+    private String generateBody() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String structure = STRUCTURES[random.nextInt(STRUCTURES.length)];
+        // Most users generate popular layouts; one in five adds something of their own
+        if (random.nextInt(5) == 0 && !structure.startsWith("{")) {
+            structure += "notes-" + random.nextInt(1_000_000) + ".md\n";
+        }
+        return objectMapper.createObjectNode()
+                .put("structureContent", structure)
+                .put("structureName", "load-test")
+                .toString();
+    }
+
+    private String chatBody(String message) {
+        return objectMapper.createObjectNode().put("message", message).toString();
+    }
+
+    private HttpResponse<String> get(String path, String token) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(options.baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body, String token) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(options.baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void appendStep(StringBuilder report, int users, Map<String, Recorder> results, Recorder all,
+                                   Duration duration) {
+        double seconds = duration.toMillis() / 1000.0;
+        report.append(String.format("%n== %d users ==%n", users));
+        report.append(String.format("%-14s %8s %9s %9s %9s %9s %9s %9s %7s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors"));
+        Map<String, Recorder> rows = new LinkedHashMap<>(results);
+        rows.put("all", all);
+        rows.forEach((endpoint, recorder) -> report.append(String.format(
+                "%-14s %8d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f %7d%n",
+                endpoint, recorder.count, recorder.count / seconds,
+                recorder.percentileMillis(50), recorder.percentileMillis(90), recorder.percentileMillis(99),
+                recorder.percentileMillis(99.9), recorder.percentileMillis(100), recorder.errors)));
+
+        report.append(String.format("%nLatency histogram (all endpoints)%n"));
+        long[] buckets = all.histogram();
+        long max = Arrays.stream(buckets).max().orElse(1);
+        for (int i = 0; i < buckets.length; i++) {
+            String label = i < BUCKETS_MS.length ? "<= " + BUCKETS_MS[i] + " ms" : "> " + BUCKETS_MS[BUCKETS_MS.length - 1] + " ms";
+            int width = max == 0 ? 0 : (int) Math.round(buckets[i] * 50.0 / max);
+            report.append(String.format("%12s %8d %6.2f%% %s%n", label, buckets[i],
+                    all.count == 0 ? 0 : buckets[i] * 100.0 / all.count, "#".repeat(width)));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        StepResult run() throws Exception;
+    }
+
+    private record StepResult(String endpoint, boolean ok) {
+    }
+
+    /**
+     * State of one virtual user: its current token and its latency recorders.
+     */
+    private final class Session {
+        private final Map<String, Recorder> recorders = new HashMap<>();
+        private String token;
+
+        StepResult record(String endpoint, HttpResponse<String> response) {
+            return new StepResult(endpoint, response.statusCode() < 400);
+        }
+
+        StepResult login(String endpoint, HttpResponse<String> response) throws IOException {
+            if (response.statusCode() != 200) {
+                token = null;
+                return new StepResult(endpoint, false);
+            }
+            JsonNode json = objectMapper.readTree(response.body());
+            token = json.path("token").asText(null);
+            return new StepResult(endpoint, token != null);
+        }
+
+        Recorder recorder(String endpoint) {
+            return recorders.computeIfAbsent(endpoint, e -> new Recorder());
+        }
+    }
+
+    /**
+     * Latencies recorded for one endpoint; merged once the step is over.
+     */
+    private static final class Recorder {
+        private long[] latencies = new long[256];
+        private int count;
+        private int errors;
+        private long[] sorted;
+
+        void record(long latencyNanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (!ok) {
+                errors++;
+            }
+            sorted = null;
+        }
+
+        void merge(Recorder other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], true);
+            }
+            errors += other.errors;
+        }
+
+        double percentileMillis(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            if (sorted == null) {
+                sorted = Arrays.copyOf(latencies, count);
+                Arrays.sort(sorted);
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+            return sorted[Math.max(0, Math.min(index, count - 1))] / 1_000_000.0;
+        }
+
+        double errorRate() {
+            return count == 0 ? 0 : (double) errors / count;
+        }
+
+        long[] histogram() {
+            long[] buckets = new long[BUCKETS_MS.length + 1];
+            for (int i = 0; i < count; i++) {
+                long millis = latencies[i] / 1_000_000;
+                int bucket = 0;
+                while (bucket < BUCKETS_MS.length && millis > BUCKETS_MS[bucket]) {
+                    bucket++;
+                }
+                buckets[bucket]++;
+            }
+            return buckets;
+        }
+    }
+
+    /**
+     * Driver settings, parsed from --name=value arguments.
+     */
+    public static final class Options {
+        private String baseUrl = "http://localhost:8080";
+        private int[] steps = {10, 50, 100, 200};
+        private Duration duration = Duration.ofSeconds(30);
+        private long sloMillis = 500;
+        private long thinkMillis = 200;
+        private Map<Journey, Integer> mix = parseMix(DEFAULT_MIX);
+        private int accounts = 50;
+        private String password = "load-test-password";
+        private Path report = Path.of("target", "loadtest-report.txt");
+
+        public static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (arg.startsWith("--") && arg.contains("=")) {
+                    int separator = arg.indexOf('=');
+                    values.put(arg.substring(2, separator), arg.substring(separator + 1));
+                }
+            }
+            Options options = new Options();
+            options.baseUrl = values.getOrDefault("base-url", options.baseUrl);
+            if (values.containsKey("users")) {
+                options.steps = Arrays.stream(values.get("users").split(","))
+                        .mapToInt(step -> Integer.parseInt(step.trim()))
+                        .toArray();
+            }
+            if (values.containsKey("duration")) {
+                options.duration = Duration.ofSeconds(Long.parseLong(values.get("duration")));
+            }
+            options.sloMillis = Long.parseLong(values.getOrDefault("slo-ms", String.valueOf(options.sloMillis)));
+            options.thinkMillis = Long.parseLong(values.getOrDefault("think-ms", String.valueOf(options.thinkMillis)));
+            if (values.containsKey("mix")) {
+                options.mix = parseMix(values.get("mix"));
+            }
+            options.accounts = Integer.parseInt(values.getOrDefault("accounts", String.valueOf(options.accounts)));
+            options.password = values.getOrDefault("password", options.password);
+            if (values.containsKey("report")) {
+                options.report = Path.of(values.get("report"));
+            }
+            return options;
+        }
+
+        public Options baseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+            return this;
+        }
+
+        private static Map<Journey, Integer> parseMix(String mix) {
+            Map<Journey, Integer> weights = new EnumMap<>(Journey.class);
+            for (String part : mix.split(",")) {
+                String[] weight = part.trim().split(":");
+                weights.put(Journey.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+            }
+            return weights;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.jash.folder_structure_generator.loadtest;
+
+import com.jash.folder_structure_generator.FolderStructureGeneratorApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Self-contained load test: starts a Gemini stub, an SMTP sink and the application on the
+ * loadtest profile (in-memory H2 database, see application-loadtest.properties), then runs
+ * {@link LoadDriver} against it. Nothing outside the JVM is needed, so results depend only
+ * on the application and the configured stub latency.
+ *
+ * Run with {@code mvn -Ploadtest verify -DskipTests -Dloadtest.args="..."}. Besides the
+ * {@link LoadDriver} options it accepts --stub-latency (same syntax as the stub's --latency)
+ * and --stub-error-rate. Exits with 1 when no step met the SLO.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadDriver.Options options = LoadDriver.Options.parse(args);
+        GeminiStubServer.Config stubConfig = new GeminiStubServer.Config()
+                .port(0)
+                .latency(GeminiStubServer.Latency.parse(option(args, "stub-latency", "lognormal:300,0.5")))
+                .errorRate(Double.parseDouble(option(args, "stub-error-rate", "0")));
+
+        boolean withinCapacity;
+        try (GeminiStubServer stub = GeminiStubServer.start(stubConfig);
+             SmtpSink smtp = SmtpSink.start(0);
+             ConfigurableApplicationContext context = SpringApplication.run(FolderStructureGeneratorApplication.class,
+                     "--spring.profiles.active=loadtest",
+                     "--server.port=0",
+                     "--spring.mail.port=" + smtp.getPort(),
+                     "--gemini.api.url=" + stub.generateContentUrl(),
+                     "--gemini.api.stream-url=" + stub.streamGenerateContentUrl())) {
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            withinCapacity = LoadDriver.run(options.baseUrl("http://localhost:" + port));
+
+            System.out.printf("Gemini stub requests: %d, emails received: %d%n",
+                    stub.requestCount(), smtp.getMessageCount());
+        }
+        System.exit(withinCapacity ? 0 : 1);
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,72 @@
+package com.jash.folder_structure_generator.security;
+
+import com.jash.folder_structure_generator.model.User;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "a-test-secret-that-is-at-least-thirty-two-bytes-long";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000L, true, 100, meterRegistry);
+
+    @Test
+    void verifiesOnceAndServesRepeatedTokensFromTheCache() {
+        String token = jwtUtil.generateToken("alice");
+
+        Claims first = jwtUtil.verify(token);
+        Claims second = jwtUtil.verify(token);
+
+        assertThat(first.getSubject()).isEqualTo("alice");
+        assertThat(second).isSameAs(first);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "jwt.verified").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void carriesTheUserIdentityInTheToken() {
+        User user = new User();
+        user.setId(42L);
+        user.setUsername("alice");
+        user.setEmail("alice@example.com");
+
+        AuthenticatedUser identity = jwtUtil.toAuthenticatedUser(jwtUtil.verify(jwtUtil.generateToken(user)));
+
+        assertThat(identity.getId()).isEqualTo(42L);
+        assertThat(identity.getName()).isEqualTo("alice");
+        assertThat(identity.getEmail()).isEqualTo("alice@example.com");
+        assertThat(jwtUtil.toAuthenticatedUser(jwtUtil.verify(jwtUtil.generateToken("alice")))).isNull();
+    }
+
+    @Test
+    void rejectsTamperedTokens() {
+        String token = jwtUtil.generateToken("alice");
+        jwtUtil.verify(token);
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(jwtUtil.verify(tampered)).isNull();
+        assertThat(jwtUtil.verify("not-a-token")).isNull();
+    }
+
+    @Test
+    void rejectsTokensSignedWithAnotherSecret() {
+        JwtUtil other = new JwtUtil("another-secret-that-is-at-least-thirty-two-bytes", 60_000L, true, 100,
+                new SimpleMeterRegistry());
+
+        assertThat(jwtUtil.verify(other.generateToken("alice"))).isNull();
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        JwtUtil expiring = new JwtUtil(SECRET, -1_000L, true, 100, new SimpleMeterRegistry());
+        String token = expiring.generateToken("alice");
+
+        assertThat(expiring.verify(token)).isNull();
+        assertThat(expiring.isTokenExpired(token)).isTrue();
+    }
+}
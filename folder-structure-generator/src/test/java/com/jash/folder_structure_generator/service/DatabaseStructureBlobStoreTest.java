@@ -0,0 +1,73 @@
+package com.jash.folder_structure_generator.service;
+
+import com.jash.folder_structure_generator.model.StructureBlob;
+import com.jash.folder_structure_generator.repository.StructureBlobRepository;
+import com.jash.folder_structure_generator.util.StructureContentCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DatabaseStructureBlobStoreTest {
+
+    private static final String STRUCTURE = "my-app/\n  src/\n    index.js\n  package.json\n  README.md\n";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StructureBlobRepository repository = mock(StructureBlobRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    void storesIdenticalContentOnce() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1}, new int[]{1, 0});
+        DatabaseStructureBlobStore store = store();
+
+        String first = store.hash(STRUCTURE);
+        assertThat(store.putAll(Map.of(first, STRUCTURE))).isEqualTo(StructureContentCodec.encode(STRUCTURE).length);
+        String second = store.put(STRUCTURE);
+        store.putAll(Map.of(first, STRUCTURE, store.hash("other/"), "other/", store.hash("again/"), "again/"));
+
+        assertThat(second).isEqualTo(first).hasSize(64);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+        assertThat(meterRegistry.counter("history.blobs.written").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("history.blobs.deduplicated").count()).isEqualTo(3);
+        assertThat(store.get(first)).contains(STRUCTURE);
+        verify(repository, never()).findById(anyString());
+    }
+
+    @Test
+    void loadsAndCachesStoredBlobs() {
+        String hash = DatabaseStructureBlobStore.hash(STRUCTURE.getBytes(StandardCharsets.UTF_8));
+        when(repository.findById(hash)).thenReturn(Optional.of(blob(hash, STRUCTURE)));
+        when(repository.findAllById(anyIterable())).thenReturn(List.of(blob(hash, STRUCTURE)));
+        DatabaseStructureBlobStore store = store();
+
+        assertThat(store.getAll(List.of(hash, "0".repeat(64)))).containsOnlyKeys(hash).containsValue(STRUCTURE);
+        assertThat(store.get(hash)).contains(STRUCTURE);
+        assertThat(store.get("f".repeat(64))).isEmpty();
+        verify(repository, never()).findById(hash);
+    }
+
+    private DatabaseStructureBlobStore store() {
+        return new DatabaseStructureBlobStore(repository, jdbcTemplate, 1 << 20, meterRegistry);
+    }
+
+    private static StructureBlob blob(String hash, String content) {
+        return new StructureBlob(hash, StructureContentCodec.encode(content),
+                content.getBytes(StandardCharsets.UTF_8).length, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,98 @@
+package com.jash.folder_structure_generator.service;
+
+import com.jash.folder_structure_generator.loadtest.SmtpSink;
+import com.jash.folder_structure_generator.model.EmailOutbox;
+import com.jash.folder_structure_generator.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxDispatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EmailOutboxRepository repository = mock(EmailOutboxRepository.class);
+    private final EmailService emailService = new EmailService(repository, Duration.ofMinutes(1), meterRegistry);
+    private SmtpSink smtp;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (smtp != null) {
+            smtp.close();
+        }
+    }
+
+    @Test
+    void sendsABatchOverOneConnection() throws Exception {
+        smtp = SmtpSink.start(0);
+        List<EmailOutbox> batch = List.of(
+                queued(EmailOutbox.Type.WELCOME, 1),
+                queued(EmailOutbox.Type.LOGIN_NOTIFICATION, 3),
+                queued(EmailOutbox.Type.WELCOME, 1));
+        when(repository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(eq(EmailOutbox.Status.PENDING), any(), any()))
+                .thenReturn(batch);
+
+        int delivered = dispatcher(smtp.getPort()).dispatchBatch();
+
+        assertThat(delivered).isEqualTo(3);
+        assertThat(batch).allSatisfy(email -> {
+            assertThat(email.getStatus()).isEqualTo(EmailOutbox.Status.SENT);
+            assertThat(email.getAttempts()).isEqualTo(1);
+        });
+        assertThat(smtp.getMessageCount()).isEqualTo(3);
+        assertThat(smtp.getConnectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void backsOffWhenTheMailServerIsDown() throws Exception {
+        smtp = SmtpSink.start(0);
+        int port = smtp.getPort();
+        smtp.close();
+        EmailOutbox email = queued(EmailOutbox.Type.WELCOME, 1);
+        when(repository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(eq(EmailOutbox.Status.PENDING), any(), any()))
+                .thenReturn(List.of(email));
+        LocalDateTime before = LocalDateTime.now();
+
+        EmailOutboxDispatcher dispatcher = dispatcher(port);
+        int delivered = dispatcher.dispatchBatch();
+
+        assertThat(delivered).isZero();
+        assertThat(email.getStatus()).isEqualTo(EmailOutbox.Status.PENDING);
+        assertThat(email.getAttempts()).isEqualTo(1);
+        assertThat(email.getLastError()).isNotNull();
+        assertThat(email.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(30));
+        assertThat(dispatcher.backoff(3)).isEqualTo(Duration.ofMinutes(2));
+        assertThat(dispatcher.backoff(20)).isEqualTo(Duration.ofMinutes(30));
+    }
+
+    private EmailOutboxDispatcher dispatcher(int port) {
+        ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@localhost");
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        return new EmailOutboxDispatcher(repository, emailService, mailSender, 50, 6,
+                Duration.ofSeconds(30), Duration.ofMinutes(30), Duration.ofDays(7), meterRegistry);
+    }
+
+    private static EmailOutbox queued(EmailOutbox.Type type, int occurrences) {
+        EmailOutbox email = new EmailOutbox();
+        email.setType(type);
+        email.setStatus(EmailOutbox.Status.PENDING);
+        email.setRecipient("user@example.com");
+        email.setUsername("user");
+        email.setOccurrences(occurrences);
+        email.setNextAttemptAt(LocalDateTime.now());
+        return email;
+    }
+}
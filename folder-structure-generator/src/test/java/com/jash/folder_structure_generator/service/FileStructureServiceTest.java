@@ -0,0 +1,71 @@
+package com.jash.folder_structure_generator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileStructureServiceTest {
+
+    private final FileStructureService service = new FileStructureService(null, null, null,
+            new ArchiveCacheService(true, 1 << 20, 1 << 16, new SimpleMeterRegistry()));
+
+    @Test
+    void buildsTextStructureInMemory() throws IOException {
+        Map<String, String> entries = unzip(service.buildZip(
+                "src/\n  main/\n    App.java\n  empty/\n  util/\n\tHelper.js\nREADME.md\n"));
+
+        assertThat(entries).containsOnlyKeys("src/main/App.java", "src/util/Helper.js", "README.md");
+        assertThat(entries.get("src/main/App.java")).startsWith("public class App {");
+    }
+
+    @Test
+    void buildsJsonStructureInMemory() throws IOException {
+        Map<String, String> entries = unzip(service.buildZip(
+                "{\"src\": {\"components\": [\"Button.jsx\"], \"index.css\": null}, \"docs/\": {}, \".gitignore\": null}"));
+
+        assertThat(entries).containsOnlyKeys("src/components/Button.jsx", "src/index.css", ".gitignore");
+        assertThat(entries.get("src/index.css")).startsWith("/* index.css */");
+    }
+
+    @Test
+    void keepsFirstContentForDuplicateFiles() throws IOException {
+        Map<String, String> entries = unzip(service.buildZip("a/\n  notes.txt\na/\n  notes.txt\n"));
+
+        assertThat(entries).containsOnlyKeys("a/notes.txt");
+    }
+
+    @Test
+    void servesEquivalentStructuresFromCache() throws IOException {
+        byte[] fromText = service.buildZip("src/\n  App.java\n");
+        byte[] fromJson = service.buildZip("{\"src\": [\"App.java\"]}");
+
+        assertThat(fromJson).isSameAs(fromText);
+    }
+
+    @Test
+    void rejectsParentDirectoryReferences() {
+        assertThatThrownBy(() -> service.buildZip("../outside.txt"))
+                .isInstanceOf(IOException.class);
+    }
+
+    private Map<String, String> unzip(byte[] zip) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(zis.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+}
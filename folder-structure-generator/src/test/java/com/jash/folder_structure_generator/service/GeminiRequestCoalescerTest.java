@@ -0,0 +1,60 @@
+package com.jash.folder_structure_generator.service;
+
+import com.jash.folder_structure_generator.service.GeminiResponseCache.Endpoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeminiRequestCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GeminiRequestCoalescer coalescer = new GeminiRequestCoalescer(true, meterRegistry);
+
+    @Test
+    void sharesOneCallBetweenConcurrentIdenticalRequests() {
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+
+        CompletableFuture<String> first = coalescer.coalesce(Endpoint.CHAT, "key",
+                () -> { calls.incrementAndGet(); return upstream.asMono(); }).toFuture();
+        CompletableFuture<String> second = coalescer.coalesce(Endpoint.CHAT, "key",
+                () -> { calls.incrementAndGet(); return upstream.asMono(); }).toFuture();
+        upstream.tryEmitValue("answer");
+
+        assertThat(first.join()).isEqualTo("answer");
+        assertThat(second.join()).isEqualTo("answer");
+        assertThat(calls).hasValue(1);
+        assertThat(meterRegistry.get("gemini.requests.coalesced").tag("endpoint", "chat").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void sharesFailureSoEachCallerCanFallBack() {
+        Sinks.One<String> upstream = Sinks.one();
+
+        CompletableFuture<String> first = coalescer.coalesce(Endpoint.CHAT, "key", upstream::asMono)
+                .onErrorResume(e -> Mono.just("fallback")).toFuture();
+        CompletableFuture<String> second = coalescer.coalesce(Endpoint.CHAT, "key", upstream::asMono)
+                .onErrorResume(e -> Mono.just("fallback")).toFuture();
+        upstream.tryEmitError(new IllegalStateException("upstream failed"));
+
+        assertThat(first.join()).isEqualTo("fallback");
+        assertThat(second.join()).isEqualTo("fallback");
+    }
+
+    @Test
+    void startsNewCallOnceThePreviousOneFinished() {
+        AtomicInteger calls = new AtomicInteger();
+
+        coalescer.coalesce(Endpoint.VALIDATION, "key", () -> Mono.just("v" + calls.incrementAndGet())).block();
+        String second = coalescer.coalesce(Endpoint.VALIDATION, "key", () -> Mono.just("v" + calls.incrementAndGet())).block();
+
+        assertThat(second).isEqualTo("v2");
+    }
+}
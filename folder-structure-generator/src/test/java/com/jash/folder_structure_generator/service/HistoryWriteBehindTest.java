@@ -0,0 +1,113 @@
+package com.jash.folder_structure_generator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HistoryWriteBehindTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final StructureBlobStore blobStore = mock(StructureBlobStore.class);
+
+    @Test
+    void batchesEntriesQueuedWhileTheWriterIsBusy() throws Exception {
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<?> rows = invocation.getArgument(1);
+            synchronized (batchSizes) {
+                batchSizes.add(rows.size());
+            }
+            firstBatchStarted.countDown();
+            releaseFirstBatch.await(5, TimeUnit.SECONDS);
+            return new int[rows.size()];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        HistoryWriteBehind writer = writer("FLUSH");
+        writer.start();
+
+        CompletableFuture<Void> first = writer.enqueue(1L, "first", "a".repeat(64));
+        assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        List<CompletableFuture<Void>> rest = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rest.add(writer.enqueue(1L, "entry " + i, "b".repeat(64)));
+        }
+        assertThat(meterRegistry.get("history.writes.queued").gauge().value()).isEqualTo(5);
+        releaseFirstBatch.countDown();
+
+        writer.await(first);
+        rest.forEach(writer::await);
+        writer.stop();
+        assertThat(batchSizes).containsExactly(1, 5);
+        // The contents of each batch are stored together, ahead of its history rows
+        verify(blobStore).putAll(Map.of("a".repeat(64), "a".repeat(64)));
+        verify(blobStore).putAll(Map.of("b".repeat(64), "b".repeat(64)));
+        assertThat(meterRegistry.counter("history.writes.written").count()).isEqualTo(6);
+    }
+
+    @Test
+    void drainsTheQueueOnStop() {
+        HistoryWriteBehind writer = writer("ASYNC");
+        writer.start();
+        List<CompletableFuture<Void>> written = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            written.add(writer.enqueue(1L, "entry " + i, "c".repeat(64)));
+        }
+
+        writer.stop();
+
+        assertThat(written).allMatch(CompletableFuture::isDone);
+        assertThat(meterRegistry.counter("history.writes.written").count()).isEqualTo(50);
+        // Entries arriving after the writer stopped are written on the caller's thread
+        assertThat(writer.enqueue(1L, "late", "d".repeat(64))).isDone();
+    }
+
+    @Test
+    void isolatesAFailingEntryOfABatch() {
+        HistoryWriteBehind writer = writer("FLUSH");
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("user is gone");
+        doThrow(violation).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        when(jdbcTemplate.update(anyString(), eq("gone"), anyString(), any(), eq(2L)))
+                .thenThrow(violation);
+
+        CompletableFuture<Void> kept = new CompletableFuture<>();
+        CompletableFuture<Void> failed = new CompletableFuture<>();
+        writer.write(List.of(
+                new HistoryWriteBehind.PendingEntry(1L, "kept", "e".repeat(64), "kept/", LocalDateTime.now(), kept),
+                new HistoryWriteBehind.PendingEntry(2L, "gone", "f".repeat(64), "gone/", LocalDateTime.now(), failed)));
+
+        writer.await(kept);
+        assertThatThrownBy(() -> writer.await(failed)).isSameAs(violation);
+        assertThat(meterRegistry.counter("history.writes.failed").count()).isEqualTo(1);
+    }
+
+    private HistoryWriteBehind writer(String durability) {
+        // Contents in these tests are their own hash
+        when(blobStore.hash(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        return new HistoryWriteBehind(jdbcTemplate, blobStore, durability, 100, 200,
+                Duration.ofSeconds(5), Duration.ofSeconds(5), meterRegistry);
+    }
+}
@@ -0,0 +1,79 @@
+package com.jash.folder_structure_generator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ThreadPoolExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void hashesAndMatchesOnTheExecutor() {
+        PasswordHashingService service = service(new ArrayBlockingQueue<>(4));
+        String hash = service.encode("secret-password");
+
+        assertThat(service.matches("secret-password", hash)).isTrue();
+        assertThat(service.matches("wrong-password", hash)).isFalse();
+    }
+
+    @Test
+    void detectsHashesMadeWithAnotherCost() {
+        PasswordHashingService service = service(new ArrayBlockingQueue<>(4));
+        assertThat(service.needsRehash(new BCryptPasswordEncoder(4).encode("secret-password"))).isTrue();
+        assertThat(service.needsRehash(new BCryptPasswordEncoder(5).encode("secret-password"))).isFalse();
+        assertThat(service.needsRehash("{noop}plain")).isFalse();
+    }
+
+    @Test
+    void shedsWorkWhenSaturated() throws Exception {
+        // No queue, so a single running hash saturates the pool
+        PasswordHashingService service = service(new SynchronousQueue<>());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        service.encodeInBackground("secret-password", hash -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        started.await();
+
+        assertThatThrownBy(() -> service.matches("secret-password", "$2a$05$x"))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(service.encodeInBackground("secret-password", hash -> { })).isFalse();
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(2.0);
+        release.countDown();
+    }
+
+    private PasswordHashingService service(BlockingQueue<Runnable> queue) {
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, queue, new ThreadPoolExecutor.AbortPolicy());
+        return new PasswordHashingService(new BCryptPasswordEncoder(4), executor, 5, Duration.ofSeconds(5),
+                meterRegistry);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.jash.folder_structure_generator.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IndentedTextParserTest {
+
+    private final IndentedTextParser parser = new IndentedTextParser();
+
+    @Test
+    void buildsTreeWithDepthAndLine() throws StructureParseException {
+        List<StructureNode> nodes = parser.parse("src/\n  main/\n    App.java\n\n  README.md\npom.xml\n");
+
+        assertThat(nodes).hasSize(2);
+        StructureNode.Directory src = (StructureNode.Directory) nodes.get(0);
+        assertThat(src.name()).isEqualTo("src/");
+        assertThat(src.children()).hasSize(2);
+
+        StructureNode.Directory main = (StructureNode.Directory) src.children().get(0);
+        assertThat(main.depth()).isEqualTo(1);
+        assertThat(main.children()).containsExactly(new StructureNode.File("App.java", 2, 3));
+        assertThat(src.children().get(1)).isEqualTo(new StructureNode.File("README.md", 1, 5));
+        assertThat(nodes.get(1)).isEqualTo(new StructureNode.File("pom.xml", 0, 6));
+    }
+
+    @Test
+    void countsTabsAsFourSpaces() throws StructureParseException {
+        List<StructureNode> nodes = parser.parse("app/\n\tcore/\n        Main.java\n    Other.java\r\n");
+
+        StructureNode.Directory core = (StructureNode.Directory) ((StructureNode.Directory) nodes.get(0)).children().get(0);
+        assertThat(core.children()).extracting(StructureNode::name).containsExactly("Main.java");
+        assertThat(((StructureNode.Directory) nodes.get(0)).children()).extracting(StructureNode::name)
+                .containsExactly("core/", "Other.java");
+    }
+
+    @Test
+    void reportsLineOfInvalidName() {
+        assertThatThrownBy(() -> parser.parse("src/\n  ../secrets.txt\n"))
+                .isInstanceOf(StructureParseException.class)
+                .hasMessageStartingWith("Line 2:")
+                .extracting(e -> ((StructureParseException) e).getLine())
+                .isEqualTo(2);
+    }
+}
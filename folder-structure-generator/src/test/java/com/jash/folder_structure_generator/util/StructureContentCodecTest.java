@@ -0,0 +1,66 @@
+package com.jash.folder_structure_generator.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StructureContentCodecTest {
+
+    private static final String STRUCTURE = """
+            my-app/
+              src/
+                main/
+                  java/
+                    com/example/
+                      Application.java
+                      controller/
+                        UserController.java
+                      service/
+                        UserService.java
+                resources/
+                  application.properties
+              pom.xml
+              README.md
+              .gitignore
+            """;
+
+    @Test
+    void compressesTypicalStructures() {
+        byte[] stored = StructureContentCodec.encode(STRUCTURE);
+
+        assertThat(stored[0]).isEqualTo(StructureContentCodec.FORMAT_DEFLATE_V1);
+        assertThat(stored.length).isLessThan(STRUCTURE.getBytes(StandardCharsets.UTF_8).length / 2);
+        assertThat(StructureContentCodec.decode(stored)).isEqualTo(STRUCTURE);
+    }
+
+    @Test
+    void storesShortContentPlain() {
+        byte[] stored = StructureContentCodec.encode("src/\n  main.py");
+
+        assertThat(stored[0]).isEqualTo(StructureContentCodec.FORMAT_PLAIN);
+        assertThat(StructureContentCodec.decode(stored)).isEqualTo("src/\n  main.py");
+    }
+
+    @Test
+    void roundTripsNonAsciiAndLargeContent() {
+        String content = "données/\n  résumé.md\n  日本語.txt\n".repeat(2000);
+
+        assertThat(StructureContentCodec.decode(StructureContentCodec.encode(content))).isEqualTo(content);
+        assertThat(StructureContentCodec.decode(StructureContentCodec.encode(""))).isEmpty();
+        assertThat(StructureContentCodec.encode(null)).isNull();
+    }
+
+    @Test
+    void rejectsUnknownFormats() {
+        assertThatThrownBy(() -> StructureContentCodec.decode(new byte[]{7, 1, 2}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown structure content format");
+        byte[] truncated = StructureContentCodec.encode(STRUCTURE);
+        assertThatThrownBy(() -> StructureContentCodec.decode(Arrays.copyOf(truncated, truncated.length / 2)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}